@@ -0,0 +1,107 @@
+package com.ejemplo.musicaemoji.benchmark;
+
+import com.ejemplo.musicaemoji.model.EmojiMood;
+import com.ejemplo.musicaemoji.model.SongDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos de entrada compartidos por los benchmarks. Se generan con semilla fija para que los
+ * resultados sean comparables entre commits.
+ */
+final class BenchmarkData {
+
+    // Emojis con mapeo: sencillos, con VS16, con tono de piel, secuencias ZWJ y banderas
+    static final String[] SIMPLE_HITS = {"😄", "🎉", "😢", "💔", "🔥", "😎", "🤘", "🎸", "🌙", "☕", "🌧️", "⚡", "🎹", "🕺", "🌊", "🍕"};
+    static final String[] COMPLEX_HITS = {"🧘‍♀️", "🏴‍☠️", "👨‍👩‍👧", "🏳️‍🌈", "🇯🇲", "🇪🇸", "🇯🇵", "🇧🇷", "👍🏽", "🤷‍♀️", "👩🏿‍🎤", "🧑‍💻"};
+
+    // Emojis sin mapeo
+    static final String[] SIMPLE_MISSES = {"🦑", "🪐", "🧀", "🛶", "🧲", "🪁", "🦥", "🧊"};
+    static final String[] COMPLEX_MISSES = {"👩‍🚒", "🇫🇮", "🧑‍🌾", "👨🏻‍🍳", "🇳🇿", "🧙‍♂️"};
+
+    private static final String[] GENRES = {"Pop", "Rock", "Indie", "Jazz", "Reggae", "Metal", "Ambient", "Funk",
+            "Soul", "Blues", "Punk", "Trap", "House", "Techno", "Salsa", "Folk"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Las filas de la colección emojiMoods que ve el índice.
+     */
+    static List<EmojiMood> emojiMoods() {
+        List<EmojiMood> moods = new ArrayList<>();
+        int i = 0;
+        for (String emoji : SIMPLE_HITS) {
+            moods.add(new EmojiMood(null, emoji, "Mood " + i, GENRES[i++ % GENRES.length]));
+        }
+        for (String emoji : COMPLEX_HITS) {
+            moods.add(new EmojiMood(null, emoji, "Mood " + i, GENRES[i++ % GENRES.length]));
+        }
+        return moods;
+    }
+
+    /**
+     * Genera una entrada de {@code count} emojis con la proporción de aciertos indicada.
+     * @param complex true para usar sobre todo secuencias ZWJ, banderas y tonos de piel.
+     */
+    static String emojiInput(int count, boolean complex, double hitRatio, Random random) {
+        String[] hits = complex ? COMPLEX_HITS : SIMPLE_HITS;
+        String[] misses = complex ? COMPLEX_MISSES : SIMPLE_MISSES;
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String[] source = random.nextDouble() < hitRatio ? hits : misses;
+            input.append(source[random.nextInt(source.length)]);
+        }
+        return input.toString();
+    }
+
+    static List<SongDto> songs(int count, double duplicateRatio, Random random) {
+        List<SongDto> songs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = random.nextDouble() < duplicateRatio && i > 0 ? random.nextInt(i) : i;
+            songs.add(new SongDto(null, "Song " + id, "Artist " + (id % 7),
+                    "https://open.spotify.com/track/" + id, "https://p.scdn.co/mp3-preview/" + id, GENRES[id % GENRES.length]));
+        }
+        return songs;
+    }
+
+    /**
+     * Una respuesta de /v1/search con la forma real: álbum con imágenes, available_markets,
+     * varios artistas, external_ids... aunque SongDto sólo usa cuatro campos.
+     */
+    static byte[] searchResponse(int tracks) {
+        StringBuilder markets = new StringBuilder();
+        for (char a = 'A'; a <= 'Z'; a++) {
+            for (char b = 'A'; b <= 'G'; b++) {
+                markets.append(markets.length() == 0 ? "" : ",").append('"').append(a).append(b).append('"');
+            }
+        }
+        StringBuilder json = new StringBuilder("{\"tracks\":{\"href\":\"https://api.spotify.com/v1/search?query=genre%3APop\",\"items\":[");
+        for (int i = 0; i < tracks; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"album\":{\"album_type\":\"album\",\"artists\":[{\"external_urls\":{\"spotify\":\"https://open.spotify.com/artist/a").append(i)
+                .append("\"},\"href\":\"https://api.spotify.com/v1/artists/a").append(i).append("\",\"id\":\"a").append(i)
+                .append("\",\"name\":\"Artist ").append(i).append("\",\"type\":\"artist\",\"uri\":\"spotify:artist:a").append(i).append("\"}],")
+                .append("\"available_markets\":[").append(markets).append("],")
+                .append("\"images\":[{\"height\":640,\"url\":\"https://i.scdn.co/image/").append(i).append("a\",\"width\":640},")
+                .append("{\"height\":300,\"url\":\"https://i.scdn.co/image/").append(i).append("b\",\"width\":300},")
+                .append("{\"height\":64,\"url\":\"https://i.scdn.co/image/").append(i).append("c\",\"width\":64}],")
+                .append("\"name\":\"Album ").append(i).append("\",\"release_date\":\"2020-01-01\",\"total_tracks\":12},")
+                .append("\"artists\":[{\"external_urls\":{\"spotify\":\"https://open.spotify.com/artist/a").append(i)
+                .append("\"},\"id\":\"a").append(i).append("\",\"name\":\"Artist ").append(i).append("\",\"type\":\"artist\"},")
+                .append("{\"id\":\"f").append(i).append("\",\"name\":\"Featured ").append(i).append("\",\"type\":\"artist\"}],")
+                .append("\"available_markets\":[").append(markets).append("],")
+                .append("\"disc_number\":1,\"duration_ms\":200000,\"explicit\":false,\"external_ids\":{\"isrc\":\"ES").append(i).append("\"},")
+                .append("\"external_urls\":{\"spotify\":\"https://open.spotify.com/track/t").append(i).append("\"},")
+                .append("\"id\":\"t").append(i).append("\",\"name\":\"Song ").append(i).append("\",\"popularity\":70,")
+                .append("\"preview_url\":").append(i % 3 == 0 ? "null" : "\"https://p.scdn.co/mp3-preview/" + i + "\"")
+                .append(",\"track_number\":1,\"type\":\"track\",\"uri\":\"spotify:track:t").append(i).append("\"}");
+        }
+        json.append("],\"limit\":").append(tracks).append(",\"next\":null,\"offset\":0,\"previous\":null,\"total\":1000}}");
+        return json.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    }
+}
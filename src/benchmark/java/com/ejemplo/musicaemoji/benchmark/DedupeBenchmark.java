@@ -0,0 +1,47 @@
+package com.ejemplo.musicaemoji.benchmark;
+
+import com.ejemplo.musicaemoji.model.SongDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Eliminación de canciones repetidas al juntar los géneros: stream().distinct() (lo que usa
+ * RecommendationService) frente a copiar a un LinkedHashSet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DedupeBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int songCount;
+
+    @Param({"0.0", "0.3"})
+    public double duplicateRatio;
+
+    private List<SongDto> songs;
+
+    @Setup
+    public void setup() {
+        songs = BenchmarkData.songs(songCount, duplicateRatio, new Random(42));
+    }
+
+    @Benchmark
+    public List<SongDto> streamDistinct() {
+        return songs.stream().distinct().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<SongDto> linkedHashSet() {
+        return new ArrayList<>(new LinkedHashSet<>(songs));
+    }
+}
@@ -0,0 +1,104 @@
+package com.ejemplo.musicaemoji.benchmark;
+
+import com.ejemplo.musicaemoji.model.EmojiMood;
+import com.ejemplo.musicaemoji.repository.EmojiMoodRepository;
+import com.ejemplo.musicaemoji.repository.EmojiMoodSubscription;
+import com.ejemplo.musicaemoji.service.EmojiMoodIndex;
+import com.ejemplo.musicaemoji.service.RecommendationMetrics;
+import com.ejemplo.musicaemoji.service.RecommendationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Resolución de géneros a partir de la cadena de emojis: el trie del índice en memoria frente
+ * al bucle original por code points (con el repositorio sustituido por un HashMap).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading")
+public class EmojiGenreBenchmark {
+
+    private static final int INPUTS = 64;
+
+    @Param({"1", "5", "20"})
+    public int emojiCount;
+
+    @Param({"simple", "zwj_flags"})
+    public String style;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double hitRatio;
+
+    private RecommendationService recommendationService;
+    private Map<String, String> genresByEmoji;
+    private String[] inputs;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        List<EmojiMood> moods = BenchmarkData.emojiMoods();
+        // El repositorio se sustituye por un mock cuyo listener entrega la colección una vez
+        EmojiMoodRepository repository = Mockito.mock(EmojiMoodRepository.class);
+        Mockito.when(repository.addSnapshotListener(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            ((Consumer<List<EmojiMood>>) invocation.getArgument(0)).accept(moods);
+            return (EmojiMoodSubscription) () -> { };
+        });
+        EmojiMoodIndex index = new EmojiMoodIndex(repository);
+        index.start();
+        recommendationService = new RecommendationService(repository, null, index, null,
+                new RecommendationMetrics(new SimpleMeterRegistry()));
+
+        genresByEmoji = new HashMap<>();
+        moods.forEach(mood -> genresByEmoji.putIfAbsent(mood.getEmoji(), mood.getGenreHint()));
+
+        Random random = new Random(42);
+        inputs = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            inputs[i] = BenchmarkData.emojiInput(emojiCount, "zwj_flags".equals(style), hitRatio, random);
+        }
+    }
+
+    private String nextInput() {
+        next = (next + 1) & (INPUTS - 1);
+        return inputs[next];
+    }
+
+    @Benchmark
+    public Set<String> indexMatcher() {
+        return recommendationService.recommendGenresByEmojis(nextInput());
+    }
+
+    /**
+     * El recorrido original: un String por code point y una búsqueda por cada uno. No reconoce
+     * secuencias ZWJ, banderas ni VS16, así que con entradas complejas falla aunque haya mapeo.
+     */
+    @Benchmark
+    public Set<String> legacyCodePointLoop() {
+        String input = nextInput();
+        Set<String> genres = new HashSet<>();
+        input.codePoints().forEach(codePoint -> {
+            String genre = genresByEmoji.get(new String(Character.toChars(codePoint)));
+            if (genre != null) {
+                genres.add(genre);
+            }
+        });
+        if (genres.isEmpty() && !input.isEmpty()) {
+            genres.add("Indie");
+        }
+        return genres;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ejemplo.musicaemoji.benchmark;
+
+import com.ejemplo.musicaemoji.model.SongDto;
+import com.ejemplo.musicaemoji.service.FallbackCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Canciones de respaldo por género: el catálogo precargado frente a reconstruir el mapa de
+ * géneros en cada llamada, como hacía el getFallbackSongsForGenre original.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FallbackCatalogBenchmark {
+
+    @Param({"Pop", "Death Metal", "Género inexistente"})
+    public String genre;
+
+    private FallbackCatalog catalog;
+    private Map<String, List<SongDto>> source;
+
+    @Setup
+    public void setup() throws Exception {
+        catalog = new FallbackCatalog(new DefaultResourceLoader(), new ObjectMapper());
+        ReflectionTestUtils.setField(catalog, "location", "classpath:fallback-songs.json");
+        catalog.init();
+        source = new HashMap<>();
+        for (String name : List.of("Pop", "Rock", "Indie", "Death Metal", "Jazz", "Reggae")) {
+            source.put(name, catalog.getSongsForGenre(name, 10));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        catalog.stop();
+    }
+
+    @Benchmark
+    public List<SongDto> preloadedCatalog() {
+        return catalog.getSongsForGenre(genre, 10);
+    }
+
+    /**
+     * Reproduce el coste del método original: crear todas las canciones y el mapa en cada llamada.
+     */
+    @Benchmark
+    public List<SongDto> legacyRebuildPerCall() {
+        Map<String, List<SongDto>> samples = new HashMap<>();
+        int genres = catalog.size();
+        for (int i = 0; i < genres; i++) {
+            List<SongDto> songs = source.get(i % 2 == 0 ? "Pop" : "Death Metal");
+            List<SongDto> copies = new ArrayList<>(songs.size());
+            for (SongDto song : songs) {
+                copies.add(new SongDto(null, song.getName(), song.getArtist(), song.getSpotifyUrl(), song.getPreviewUrl(), song.getRecommendedGenre()));
+            }
+            samples.put(i == 0 ? "Pop" : i == 1 ? "Death Metal" : "Genre " + i, copies);
+        }
+        List<SongDto> songs = samples.get(genre);
+        if (songs == null) {
+            return List.of(new SongDto(null, "No hay recomendaciones", "N/A", "", "", "Desconocido"));
+        }
+        return songs.subList(0, Math.min(10, songs.size()));
+    }
+}
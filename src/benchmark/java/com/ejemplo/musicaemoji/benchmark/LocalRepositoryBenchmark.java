@@ -0,0 +1,75 @@
+package com.ejemplo.musicaemoji.benchmark;
+
+import com.ejemplo.musicaemoji.model.EmojiKeys;
+import com.ejemplo.musicaemoji.model.EmojiMood;
+import com.ejemplo.musicaemoji.repository.EmojiMoodLocalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas del almacén local (perfil "local"): sólo en memoria, fichero mapeado en memoria y
+ * fichero con E/S normal. La latencia equivalente de Firestore se mide con la prueba de carga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalRepositoryBenchmark {
+
+    @Param({"memory", "mapped", "file"})
+    public String storage;
+
+    private EmojiMoodLocalRepository repository;
+    private Path directory;
+    private String hitId;
+    private String missId;
+    private List<String> emojis;
+
+    @Setup
+    public void setup() throws Exception {
+        String path = "";
+        if (!"memory".equals(storage)) {
+            directory = Files.createTempDirectory("emojimoods-bench");
+            path = directory.resolve("emojimoods.mv.db").toString();
+        }
+        repository = new EmojiMoodLocalRepository(new ObjectMapper(), path, "mapped".equals(storage));
+        List<EmojiMood> moods = BenchmarkData.emojiMoods();
+        repository.createAll(moods);
+        hitId = EmojiKeys.canonicalKey(moods.get(3).getEmoji());
+        missId = EmojiKeys.canonicalKey(BenchmarkData.SIMPLE_MISSES[0]);
+        emojis = List.of(moods.get(0).getEmoji(), BenchmarkData.COMPLEX_HITS[0], BenchmarkData.SIMPLE_MISSES[1]);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        repository.shutdown();
+        if (directory != null) {
+            try (var files = Files.walk(directory)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<EmojiMood> findByIdHit() {
+        return repository.findById(hitId);
+    }
+
+    @Benchmark
+    public Optional<EmojiMood> findByIdMiss() {
+        return repository.findById(missId);
+    }
+
+    @Benchmark
+    public List<EmojiMood> findByEmojis() {
+        return repository.findByEmojis(emojis);
+    }
+}
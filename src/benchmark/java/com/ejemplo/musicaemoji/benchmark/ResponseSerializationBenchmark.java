@@ -0,0 +1,45 @@
+package com.ejemplo.musicaemoji.benchmark;
+
+import com.ejemplo.musicaemoji.model.RecommendationResponse;
+import com.ejemplo.musicaemoji.model.SongDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de RecommendationResponse con el ObjectMapper configurado como en Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "50", "100"})
+    public int songCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private RecommendationResponse response;
+
+    @Setup
+    public void setup() {
+        List<SongDto> songs = BenchmarkData.songs(songCount, 0, new Random(42));
+        Set<String> genres = new LinkedHashSet<>();
+        songs.forEach(song -> genres.add(song.getRecommendedGenre()));
+        response = new RecommendationResponse(genres, songs);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
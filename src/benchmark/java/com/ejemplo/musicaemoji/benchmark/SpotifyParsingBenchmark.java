@@ -0,0 +1,61 @@
+package com.ejemplo.musicaemoji.benchmark;
+
+import com.ejemplo.musicaemoji.model.SongDto;
+import com.ejemplo.musicaemoji.service.SpotifyResponseParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de una respuesta de /v1/search: el parser en streaming frente al recorrido del árbol
+ * JsonNode original. Con {@code -prof gc} se obtiene también la memoria reservada por respuesta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpotifyParsingBenchmark {
+
+    @Param({"10", "50"})
+    public int tracks;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        body = BenchmarkData.searchResponse(tracks);
+    }
+
+    @Benchmark
+    public List<SongDto> streamingParser() throws IOException {
+        return SpotifyResponseParser.parseSearchTracks(body, "Pop");
+    }
+
+    /**
+     * El recorrido original sin el println por canción (que sólo empeoraría la comparación).
+     */
+    @Benchmark
+    public List<SongDto> legacyTreeWalk() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(body);
+        List<SongDto> results = new ArrayList<>();
+        for (JsonNode track : jsonNode.path("tracks").path("items")) {
+            String songName = track.path("name").asText();
+            String artistName = track.path("artists").get(0).path("name").asText();
+            String spotifyUrl = track.path("external_urls").path("spotify").asText();
+            String previewUrl = track.path("preview_url").asText();
+            if (previewUrl == null || previewUrl.equalsIgnoreCase("null") || previewUrl.isEmpty()) {
+                previewUrl = "";
+            }
+            results.add(new SongDto(null, songName, artistName, spotifyUrl, previewUrl, "Pop"));
+        }
+        return results;
+    }
+}
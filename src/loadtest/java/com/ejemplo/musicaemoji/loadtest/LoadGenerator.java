@@ -0,0 +1,284 @@
+package com.ejemplo.musicaemoji.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga contra la API del recomendador.
+ * <ul>
+ *   <li>Bucle cerrado: {@code concurrency} usuarios que lanzan la siguiente petición en cuanto
+ *   reciben la respuesta anterior. Mide la capacidad máxima con esa concurrencia.</li>
+ *   <li>Bucle abierto: las peticiones llegan a un ritmo fijo, responda el servicio o no. La latencia
+ *   se mide desde el instante en que la petición debía enviarse, así que los retrasos del propio
+ *   generador o de la cola del servicio no se ocultan (omisión coordinada).</li>
+ * </ul>
+ * Cada petición se ejecuta en un hilo virtual. Las peticiones programadas durante el calentamiento
+ * se envían pero no se registran.
+ */
+final class LoadGenerator {
+
+    // Emojis con mapeo en los datos iniciales, incluidas secuencias ZWJ y banderas
+    private static final String[] EMOJIS = {"😄", "🎉", "🥳", "🌧️", "😢", "💔", "💪", "⚡", "🔥", "🧘‍♀️", "😎", "🤔",
+            "😴", "🤩", "🎸", "🤠", "🌳", "🎷", "🎺", "🎤", "🕺", "💿", "💥", "🌫️", "💀", "🌈", "☕", "🎧", "🌊", "🤖", "🥁", "🇯🇲"};
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final Duration timeout;
+    private final LoadReport report = new LoadReport();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Una ejecución del escenario. Registra sus peticiones en el informe si se programó
+     * después del calentamiento.
+     */
+    interface Scenario {
+        void run(Session session);
+    }
+
+    LoadGenerator(URI baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Bucle cerrado: {@code concurrency} usuarios sin pausa entre peticiones.
+     */
+    LoadReport runClosed(Scenario scenario, int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        System.out.println("LoadGenerator: Bucle cerrado con " + concurrency + " usuarios durante " + duration.toSeconds() + " s (+" + warmup.toSeconds() + " s de calentamiento)");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.execute(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        scenario.run(new Session(now, now >= measureFrom));
+                    }
+                });
+            }
+        }
+        report.window(measureFrom, System.nanoTime());
+        return report;
+    }
+
+    /**
+     * Bucle abierto: {@code ratePerSecond} ejecuciones del escenario por segundo, con como mucho
+     * {@code maxInFlight} en curso; las que no caben se cuentan como no enviadas.
+     */
+    LoadReport runOpen(Scenario scenario, double ratePerSecond, int maxInFlight, Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        System.out.println("LoadGenerator: Bucle abierto a " + ratePerSecond + " peticiones/s durante " + duration.toSeconds() + " s (+" + warmup.toSeconds() + " s de calentamiento)");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + (long) (i * 1e9 / ratePerSecond);
+                if (scheduled >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = scheduled >= measureFrom;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        report.recordDropped();
+                    }
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        scenario.run(new Session(scheduled, measured));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        // La ventana medida es la programada: lo que tarde en vaciarse la cola ya está en las latencias
+        report.window(measureFrom, end);
+        return report;
+    }
+
+    /**
+     * Recomendación por emojis contra uno de los endpoints: "by-emojis" (bloqueante),
+     * "reactive" o "stream".
+     */
+    Scenario recommend(String endpoint, int emojisPerRequest) {
+        String path = "by-emojis".equals(endpoint) ? "/api/recommendations/by-emojis" : "/api/recommendations/by-emojis/" + endpoint;
+        String operation = "recommend." + endpoint;
+        return session -> session.call(operation, get(path + "?emojis=" + randomEmojis(emojisPerRequest)).build());
+    }
+
+    /**
+     * CRUD completo de un EmojiMood: alta, lectura, modificación y baja; en una de cada diez
+     * ejecuciones también se lista la colección entera.
+     */
+    Scenario crud() {
+        AtomicLong sequence = new AtomicLong(System.currentTimeMillis() % 1_000_000 * 1000);
+        return session -> {
+            String emoji = "🧪" + sequence.incrementAndGet();
+            JsonNode created = session.call("emojimoods.create", json("POST", "/api/emojimoods", emoji, "Pop"));
+            if (created == null || !created.hasNonNull("id")) {
+                return;
+            }
+            String path = "/api/emojimoods/" + created.get("id").asText();
+            session.call("emojimoods.get", get(path).build());
+            session.call("emojimoods.update", json("PUT", path, emoji, "Rock"));
+            session.call("emojimoods.delete", HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout).DELETE().build());
+            if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                session.call("emojimoods.list", get("/api/emojimoods").build());
+            }
+        };
+    }
+
+    /**
+     * Tráfico mixto: recomendaciones bloqueantes y, en la proporción indicada, un CRUD completo.
+     */
+    Scenario mixed(int emojisPerRequest, double crudRatio) {
+        Scenario recommend = recommend("by-emojis", emojisPerRequest);
+        Scenario crud = crud();
+        return session -> (ThreadLocalRandom.current().nextDouble() < crudRatio ? crud : recommend).run(session);
+    }
+
+    /**
+     * Compara el tiempo hasta el primer byte y el tiempo total de los endpoints bloqueante,
+     * reactivo y en streaming con la misma entrada.
+     */
+    Scenario ttfb(int emojisPerRequest) {
+        String[] endpoints = {"by-emojis", "reactive", "stream"};
+        return session -> {
+            String endpoint = endpoints[ThreadLocalRandom.current().nextInt(endpoints.length)];
+            String path = "by-emojis".equals(endpoint) ? "/api/recommendations/by-emojis" : "/api/recommendations/by-emojis/" + endpoint;
+            HttpRequest.Builder request = get(path + "?emojis=" + randomEmojis(emojisPerRequest));
+            if ("stream".equals(endpoint)) {
+                request.header("Accept", "text/event-stream");
+            }
+            session.callMeasuringFirstByte("ttfb." + endpoint, request.build());
+        };
+    }
+
+    /**
+     * Una ejecución de un escenario. La primera petición se mide desde el instante programado y
+     * cada una de las siguientes desde el final de la anterior.
+     */
+    final class Session {
+        private long nextStartNanos;
+        private final boolean measured;
+
+        private Session(long scheduledNanos, boolean measured) {
+            this.nextStartNanos = scheduledNanos;
+            this.measured = measured;
+        }
+
+        /**
+         * Envía la petición y registra su latencia y, si falla, la causa.
+         * @return El cuerpo de la respuesta como JSON, o null si falló o no es JSON.
+         */
+        JsonNode call(String operation, HttpRequest request) {
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                finish(operation, response.statusCode());
+                byte[] body = response.body();
+                return response.statusCode() < 300 && body.length > 0 ? objectMapper.readTree(body) : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                fail(operation, e);
+                return null;
+            }
+        }
+
+        /**
+         * Envía la petición y registra por separado el tiempo hasta el primer byte del cuerpo
+         * ({@code operation + ".first-byte"}) y el tiempo hasta leerlo entero.
+         */
+        void callMeasuringFirstByte(String operation, HttpRequest request) {
+            long start = nextStartNanos;
+            try {
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    body.read();
+                    if (measured) {
+                        report.recordLatency(operation + ".first-byte", System.nanoTime() - start);
+                    }
+                    body.transferTo(OutputStream.nullOutputStream());
+                }
+                finish(operation, response.statusCode());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                fail(operation, e);
+            }
+        }
+
+        private void finish(String operation, int status) {
+            long now = System.nanoTime();
+            if (measured) {
+                report.recordLatency(operation, now - nextStartNanos);
+                if (status >= 300) {
+                    report.recordError(operation, "HTTP " + status);
+                }
+            }
+            nextStartNanos = now;
+        }
+
+        private void fail(String operation, Exception e) {
+            long now = System.nanoTime();
+            if (measured) {
+                report.recordLatency(operation, now - nextStartNanos);
+                report.recordError(operation, e.getClass().getSimpleName());
+            }
+            nextStartNanos = now;
+        }
+    }
+
+    private HttpRequest.Builder get(String pathAndQuery) {
+        return HttpRequest.newBuilder(baseUrl.resolve(pathAndQuery)).timeout(timeout).GET();
+    }
+
+    private HttpRequest json(String method, String path, String emoji, String genre) {
+        String body = objectMapper.createObjectNode()
+                .put("emoji", emoji)
+                .put("moodDescription", "Prueba de carga")
+                .put("genreHint", genre)
+                .toString();
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static String randomEmojis(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder emojis = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            emojis.append(EMOJIS[random.nextInt(EMOJIS.length)]);
+        }
+        return URLEncoder.encode(emojis.toString(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+package com.ejemplo.musicaemoji.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados de una prueba de carga: un histograma HdrHistogram de latencias por operación
+ * (en microsegundos) y el desglose de errores por operación y causa.
+ * Las latencias incluyen también las peticiones fallidas.
+ */
+final class LoadReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long startedAtNanos;
+    private volatile long finishedAtNanos;
+
+    /**
+     * Fija la ventana medida, con la que se calcula el rendimiento.
+     */
+    void window(long startNanos, long endNanos) {
+        startedAtNanos = startNanos;
+        finishedAtNanos = endNanos;
+    }
+
+    void recordLatency(String operation, long nanos) {
+        latencies.computeIfAbsent(operation, key -> new ConcurrentHistogram(MAX_LATENCY_MICROS, 3))
+                .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_MICROS));
+    }
+
+    /**
+     * Cuenta un error de una operación.
+     * @param cause El estado HTTP ("HTTP 503") o el tipo de excepción.
+     */
+    void recordError(String operation, String cause) {
+        errors.computeIfAbsent(operation + ": " + cause, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Cuenta una petición que el bucle abierto no llegó a enviar porque había demasiadas en curso.
+     */
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    double elapsedSeconds() {
+        return (finishedAtNanos - startedAtNanos) / 1e9;
+    }
+
+    void print() {
+        double seconds = elapsedSeconds();
+        System.out.println();
+        System.out.printf("%-28s %9s %9s %9s %9s %9s %9s %9s %8s%n",
+                "Operación", "Peticiones", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms", "errores");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(latencies).entrySet()) {
+            Histogram histogram = entry.getValue();
+            System.out.printf("%-28s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    entry.getKey(), histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0, errorsFor(entry.getKey()));
+        }
+        if (!errors.isEmpty()) {
+            System.out.println();
+            System.out.println("Errores:");
+            new TreeMap<>(errors).forEach((cause, count) -> System.out.println("  " + cause + ": " + count.sum()));
+        }
+        if (dropped.sum() > 0) {
+            System.out.println("Peticiones no enviadas por exceso de peticiones en curso: " + dropped.sum());
+        }
+        System.out.printf("Duración medida: %.1f s%n", seconds);
+    }
+
+    /**
+     * Guarda el informe en JSON junto con la configuración de la prueba y los datos adicionales.
+     */
+    void writeJson(Path output, Map<String, ?> settings, Map<String, ?> extra) throws IOException {
+        double seconds = elapsedSeconds();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(latencies).entrySet()) {
+            Histogram histogram = entry.getValue();
+            Map<String, Object> percentiles = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                percentiles.put("p" + percentile, millis(histogram, percentile));
+            }
+            percentiles.put("max", histogram.getMaxValue() / 1000.0);
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("count", histogram.getTotalCount());
+            operation.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+            operation.put("meanMillis", histogram.getMean() / 1000.0);
+            operation.put("latencyMillis", percentiles);
+            operation.put("errors", errorsFor(entry.getKey()));
+            operations.put(entry.getKey(), operation);
+        }
+        Map<String, Long> errorBreakdown = new TreeMap<>();
+        errors.forEach((cause, count) -> errorBreakdown.put(cause, count.sum()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("durationSeconds", seconds);
+        report.put("operations", operations);
+        report.put("errors", errorBreakdown);
+        report.put("dropped", dropped.sum());
+        report.putAll(extra);
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+        System.out.println("Informe guardado en " + output.toAbsolutePath());
+    }
+
+    private long errorsFor(String operation) {
+        String prefix = operation + ": ";
+        return errors.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
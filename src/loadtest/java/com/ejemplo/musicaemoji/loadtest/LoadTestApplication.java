@@ -0,0 +1,141 @@
+package com.ejemplo.musicaemoji.loadtest;
+
+import com.ejemplo.musicaemoji.RecomendadorMusicaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prueba de carga de extremo a extremo sin tocar Spotify ni Firestore reales.
+ * Arranca el Spotify simulado, levanta la aplicación apuntando a él y al emulador de Firestore
+ * (FIRESTORE_EMULATOR_HOST) o al almacén local ({@code --spring.profiles.active=local}) y lanza
+ * el generador de carga. Con {@code --loadtest.target=URL}
+ * sólo lanza el generador contra una instancia ya arrancada.
+ * <p>
+ * Los argumentos {@code --loadtest.*} y {@code --stub.*} configuran la prueba; el resto se pasa
+ * a Spring, por ejemplo {@code --spotify.rate.per-second=50}.
+ */
+public final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if ((arg.startsWith("--loadtest.") || arg.startsWith("--stub.")) && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+
+        String target = options.getOrDefault("loadtest.target", "");
+        SpotifyStub stub = null;
+        ConfigurableApplicationContext context = null;
+        try {
+            if (target.isEmpty()) {
+                if (!hasEmulatorOrLocalStore(springArgs)) {
+                    System.err.println("LoadTestApplication: Define FIRESTORE_EMULATOR_HOST (o --firestore.emulator-host) o usa --spring.profiles.active=local para no usar el Firestore real.");
+                    System.exit(2);
+                }
+                stub = SpotifyStub.start(new SpotifyStub.Settings(
+                        intOption(options, "stub.port", 0),
+                        doubleOption(options, "stub.latency-median-ms", 40),
+                        doubleOption(options, "stub.latency-p99-ms", 250),
+                        doubleOption(options, "stub.error-rate", 0.01),
+                        doubleOption(options, "stub.rate-limit-rate", 0),
+                        intOption(options, "stub.retry-after-seconds", 1)));
+                context = startApplication(stub, springArgs);
+                target = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            }
+
+            Duration warmup = Duration.ofSeconds(intOption(options, "loadtest.warmup-seconds", 10));
+            Duration duration = Duration.ofSeconds(intOption(options, "loadtest.duration-seconds", 60));
+            int emojisPerRequest = intOption(options, "loadtest.emojis-per-request", 3);
+            LoadGenerator generator = new LoadGenerator(URI.create(target),
+                    Duration.ofMillis(intOption(options, "loadtest.timeout-ms", 10000)));
+
+            String scenarioName = options.getOrDefault("loadtest.scenario", "recommend");
+            LoadGenerator.Scenario scenario = switch (scenarioName) {
+                case "recommend" -> generator.recommend(options.getOrDefault("loadtest.endpoint", "by-emojis"), emojisPerRequest);
+                case "crud" -> generator.crud();
+                case "mixed" -> generator.mixed(emojisPerRequest, doubleOption(options, "loadtest.crud-ratio", 0.1));
+                case "ttfb" -> generator.ttfb(emojisPerRequest);
+                default -> throw new IllegalArgumentException("Escenario desconocido: " + scenarioName);
+            };
+
+            LoadReport report = "open".equals(options.getOrDefault("loadtest.mode", "closed"))
+                    ? generator.runOpen(scenario, doubleOption(options, "loadtest.rate", 100),
+                            intOption(options, "loadtest.max-in-flight", 10000), warmup, duration)
+                    : generator.runClosed(scenario, intOption(options, "loadtest.concurrency", 32), warmup, duration);
+
+            report.print();
+            Map<String, Object> extra = new LinkedHashMap<>();
+            if (stub != null) {
+                extra.put("spotifyStubResponses", stub.getResponseCounts());
+            }
+            Map<String, Object> settings = new LinkedHashMap<>(options);
+            settings.put("loadtest.target", target);
+            settings.put("springArgs", springArgs);
+            report.writeJson(Path.of(options.getOrDefault("loadtest.output", "target/loadtest-results.json")), settings, extra);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (stub != null) {
+                stub.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Arranca la aplicación contra el Spotify simulado. Se usan propiedades del sistema porque
+     * tienen prioridad sobre application.properties y, a la vez, los argumentos de Spring
+     * siguen pudiendo sobrescribirlas.
+     */
+    private static ConfigurableApplicationContext startApplication(SpotifyStub stub, List<String> springArgs) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        // El reinicio de devtools volvería a lanzar main sólo con los argumentos de Spring
+        properties.put("spring.devtools.restart.enabled", "false");
+        properties.put("server.port", "0");
+        properties.put("spotify.api-url", stub.baseUrl() + "/v1");
+        properties.put("spotify.auth-url", stub.baseUrl() + "/api/token");
+        properties.put("spotify.client.id", "loadtest");
+        properties.put("spotify.client.secret", "loadtest");
+        // El simulado es HTTP sin TLS, así que no puede negociar HTTP/2 por ALPN
+        properties.put("spotify.http.http2-enabled", "false");
+        // El calentador no debe competir con la carga medida
+        properties.put("warmer.initial-delay-seconds", "86400");
+        properties.put("logging.level.com.ejemplo.musicaemoji", "INFO");
+        properties.put("logging.level.com.google.cloud.firestore", "INFO");
+        properties.forEach(System::setProperty);
+        return new SpringApplicationBuilder(RecomendadorMusicaApplication.class).run(springArgs.toArray(String[]::new));
+    }
+
+    private static boolean hasEmulatorOrLocalStore(List<String> springArgs) {
+        String host = System.getenv("FIRESTORE_EMULATOR_HOST");
+        return (host != null && !host.isBlank())
+                || springArgs.stream().anyMatch(arg -> arg.startsWith("--firestore.emulator-host=")
+                        || (arg.startsWith("--spring.profiles.active=") && arg.contains("local")));
+    }
+
+    private static int intOption(Map<String, String> options, String key, int defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static double doubleOption(Map<String, String> options, String key, double defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,198 @@
+package com.ejemplo.musicaemoji.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spotify simulado para las pruebas de carga: responde a /api/token, /v1/search y /v1/recommendations
+ * con canciones generadas, una latencia log-normal configurable y una proporción configurable de
+ * errores 500 y respuestas 429 con Retry-After. Cada petición se atiende en un hilo virtual, así que
+ * la latencia simulada no limita la concurrencia.
+ */
+final class SpotifyStub implements AutoCloseable {
+
+    private static final int TRACKS_PER_GENRE = 1000; // Total que anuncia /search para paginar
+    private static final int ARTISTS_PER_GENRE = 37;
+    private static final String[] GENRE_SEEDS = {"pop", "rock", "indie", "jazz", "reggae", "metal", "ambient",
+            "funk", "soul", "blues", "punk", "house", "techno", "salsa", "folk", "classical", "electronic", "hip-hop"};
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Respuestas por ruta y estado, para el informe final
+    private final Map<String, LongAdder> responses = new ConcurrentHashMap<>();
+
+    /**
+     * Configuración del Spotify simulado.
+     * @param port Puerto de escucha; 0 para uno libre.
+     * @param latencyMedianMillis Mediana de la latencia simulada.
+     * @param latencyP99Millis Percentil 99 de la latencia simulada.
+     * @param errorRate Proporción de respuestas 500.
+     * @param rateLimitRate Proporción de respuestas 429.
+     * @param retryAfterSeconds Valor de la cabecera Retry-After de las respuestas 429.
+     */
+    record Settings(int port, double latencyMedianMillis, double latencyP99Millis,
+                    double errorRate, double rateLimitRate, int retryAfterSeconds) {
+    }
+
+    private SpotifyStub(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", settings.port()), 1024);
+        server.setExecutor(executor);
+        server.createContext("/api/token", this::handleToken);
+        server.createContext("/v1/search", exchange -> handleApi(exchange, "search"));
+        server.createContext("/v1/recommendations", exchange -> handleApi(exchange,
+                exchange.getRequestURI().getPath().endsWith("/available-genre-seeds") ? "genre-seeds" : "recommendations"));
+    }
+
+    static SpotifyStub start(Settings settings) throws IOException {
+        SpotifyStub stub = new SpotifyStub(settings);
+        stub.server.start();
+        System.out.println("SpotifyStub: Escuchando en " + stub.baseUrl() + " (latencia p50 " + settings.latencyMedianMillis()
+                + " ms, p99 " + settings.latencyP99Millis() + " ms, errores " + settings.errorRate() + ", 429 " + settings.rateLimitRate() + ")");
+        return stub;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    Map<String, Long> getResponseCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        responses.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> counts.put(entry.getKey(), entry.getValue().sum()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        simulateLatency();
+        respond(exchange, "token", 200, "{\"access_token\":\"stub-token\",\"token_type\":\"Bearer\",\"expires_in\":3600}");
+    }
+
+    private void handleApi(HttpExchange exchange, String route) throws IOException {
+        simulateLatency();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < settings.rateLimitRate()) {
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(settings.retryAfterSeconds()));
+            respond(exchange, route, 429, "{\"error\":{\"status\":429,\"message\":\"API rate limit exceeded\"}}");
+            return;
+        }
+        if (roll < settings.rateLimitRate() + settings.errorRate()) {
+            respond(exchange, route, 500, "{\"error\":{\"status\":500,\"message\":\"Server error\"}}");
+            return;
+        }
+
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int limit = Integer.parseInt(query.getOrDefault("limit", "20"));
+        switch (route) {
+            case "search" -> {
+                String genre = query.getOrDefault("q", "genre:unknown").replaceFirst("^genre:", "");
+                int offset = Integer.parseInt(query.getOrDefault("offset", "0"));
+                int count = Math.max(0, Math.min(limit, TRACKS_PER_GENRE - offset));
+                respond(exchange, route, 200, "{\"tracks\":{\"items\":" + tracks(genre, offset, count)
+                        + ",\"limit\":" + limit + ",\"offset\":" + offset + ",\"total\":" + TRACKS_PER_GENRE + "}}");
+            }
+            case "recommendations" -> {
+                String genre = query.getOrDefault("seed_genres", "unknown").replace(',', '+');
+                respond(exchange, route, 200, "{\"tracks\":" + tracks(genre, random.nextInt(TRACKS_PER_GENRE - limit), limit) + "}");
+            }
+            default -> {
+                StringBuilder json = new StringBuilder("{\"genres\":[");
+                for (int i = 0; i < GENRE_SEEDS.length; i++) {
+                    json.append(i == 0 ? "" : ",").append('"').append(GENRE_SEEDS[i]).append('"');
+                }
+                respond(exchange, route, 200, json.append("]}").toString());
+            }
+        }
+    }
+
+    /**
+     * Genera canciones deterministas por género y posición, con la forma de las de Spotify
+     * (álbum, varios artistas, external_urls, preview_url a veces nulo).
+     */
+    private static String tracks(String genre, int offset, int count) {
+        String name = escape(genre);
+        StringBuilder json = new StringBuilder(count * 400).append('[');
+        for (int i = offset; i < offset + count; i++) {
+            int artist = i % ARTISTS_PER_GENRE;
+            String id = Integer.toHexString((name + i).hashCode());
+            json.append(i == offset ? "" : ",")
+                .append("{\"album\":{\"album_type\":\"album\",\"images\":[{\"height\":640,\"url\":\"https://i.scdn.co/image/").append(id)
+                .append("\",\"width\":640}],\"name\":\"").append(name).append(" Album ").append(i / 10).append("\"},")
+                .append("\"artists\":[{\"id\":\"a").append(artist).append("\",\"name\":\"").append(name).append(" Artist ").append(artist).append("\"}],")
+                .append("\"duration_ms\":200000,\"explicit\":false,")
+                .append("\"external_urls\":{\"spotify\":\"https://open.spotify.com/track/").append(id).append(i).append("\"},")
+                .append("\"id\":\"").append(id).append("\",\"name\":\"").append(name).append(" Song ").append(i).append("\",\"popularity\":50,")
+                .append("\"preview_url\":").append(i % 3 == 0 ? "null" : "\"https://p.scdn.co/mp3-preview/" + id + "\"")
+                .append(",\"type\":\"track\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private void simulateLatency() {
+        double median = settings.latencyMedianMillis();
+        if (median <= 0) {
+            return;
+        }
+        // Log-normal: la mediana es e^mu y el p99 es e^(mu + 2.326 * sigma)
+        double sigma = settings.latencyP99Millis() > median ? Math.log(settings.latencyP99Millis() / median) / 2.326 : 0;
+        double millis = Math.exp(Math.log(median) + sigma * ThreadLocalRandom.current().nextGaussian());
+        try {
+            Thread.sleep((long) millis, (int) ((millis % 1) * 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, String route, int status, String body) throws IOException {
+        responses.computeIfAbsent(route + " " + status, key -> new LongAdder()).increment();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -3,10 +3,12 @@ package com.ejemplo.musicaemoji;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @SpringBootApplication
+@EnableScheduling // Necesario para las tareas periódicas (p. ej. el sondeo del índice de emojis)
 public class RecomendadorMusicaApplication {
 
     public static void main(String[] args) {
@@ -1,138 +1,259 @@
 package com.ejemplo.musicaemoji.config;
 
+import com.ejemplo.musicaemoji.model.BulkOperationResult;
+import com.ejemplo.musicaemoji.model.EmojiKeys;
 import com.ejemplo.musicaemoji.model.EmojiMood;
-import com.ejemplo.musicaemoji.repository.EmojiMoodFirestoreRepository;
+import com.ejemplo.musicaemoji.model.SeedMetadata;
+import com.ejemplo.musicaemoji.repository.EmojiMoodRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Carga los datos iniciales de emojis y géneros en el repositorio (Firestore o el almacén local).
+ * La carga se hace en segundo plano para no retrasar el arranque y se guía por un documento
+ * de metadatos con la versión y el checksum de los datos ya aplicados: si coinciden no se lee
+ * la colección, y si no, sólo se escriben las entradas que faltan.
+ * Mientras tanto la aplicación se declara como no lista (readiness REFUSING_TRAFFIC).
+ */
 @Configuration
 public class DatabaseInitializer {
 
+    // Incrementa esta versión al cambiar los datos iniciales
+    // Versión 2: los IDs de documento pasan a ser la clave canónica del emoji
+    private static final int SEED_VERSION = 2;
+    private static final int FIRST_EMOJI_KEYED_VERSION = 2;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Las dos transiciones de readiness (la del listener y la del final de la carga) se hacen
+    // bajo este bloqueo, para que un REFUSING_TRAFFIC no pueda publicarse después del
+    // ACCEPTING_TRAFFIC final y dejar la aplicación fuera de servicio
+    private final Object readinessLock = new Object();
+    private boolean seedingDone; // Protegido por readinessLock
+
+    @Autowired
+    public DatabaseInitializer(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
     @Bean
-    CommandLineRunner initDatabase(EmojiMoodFirestoreRepository repository) {
-        return args -> {
-            if (repository.count() == 0) {
-                System.out.println("Cargando datos iniciales de emojis y géneros en Firestore...");
-
-                List<EmojiMood> initialData = Arrays.asList(
-                    new EmojiMood(null, "😄", "Alegre", "Pop"),
-                    new EmojiMood(null, "🎉", "Fiesta", "Dance"),
-                    new EmojiMood(null, "🥳", "Celebración", "Reggaeton"),
-                    new EmojiMood(null, "🌧️", "Melancólico", "Balada"),
-                    new EmojiMood(null, "😢", "Triste", "Blues"),
-                    new EmojiMood(null, "💔", "Desamor", "Indie"),
-                    new EmojiMood(null, "💪", "Enérgico", "Rock"),
-                    new EmojiMood(null, "⚡", "Intenso", "Electrónica"),
-                    new EmojiMood(null, "🔥", "Motivador", "Hip Hop"),
-                    new EmojiMood(null, "🧘‍♀️", "Relajado", "Jazz"),
-                    new EmojiMood(null, "😎", "Confiado", "R&B"),
-                    new EmojiMood(null, "🤔", "Pensativo", "Clásica"),
-                    new EmojiMood(null, "😴", "Tranquilo", "Ambient"),
-                    new EmojiMood(null, "🤩", "Emocionado", "K-Pop"),
-                    new EmojiMood(null, "🎸", "Rebelde", "Heavy Metal"),
-                    new EmojiMood(null, "🤠", "Campestre", "Country"),
-                    new EmojiMood(null, "🌳", "Natural", "Folk"),
-                    new EmojiMood(null, "🎷", "Sofisticado", "Smooth Jazz"),
-                    new EmojiMood(null, "🎺", "Marcha", "Big Band"),
-                    new EmojiMood(null, "🎤", "Vocal", "Soul"),
-                    new EmojiMood(null, "🕺", "Groovy", "Funk"),
-                    new EmojiMood(null, "💿", "Retro", "Disco"),
-                    new EmojiMood(null, "💥", "Agresivo", "Punk"),
-                    new EmojiMood(null, "🌫️", "Distorsionado", "Grunge"),
-                    new EmojiMood(null, "⛓️", "Pesado", "Metalcore"),
-                    new EmojiMood(null, "💀", "Extremo", "Death Metal"),
-                    new EmojiMood(null, "🌑", "Oscuro", "Black Metal"),
-                    new EmojiMood(null, "🏰", "Épico", "Symphonic Metal"),
-                    new EmojiMood(null, "🌀", "Complejo", "Progressive Rock"),
-                    new EmojiMood(null, "🌈", "Alucinante", "Psychedelic Rock"),
-                    new EmojiMood(null, "☕", "Acogedor", "Acoustic"),
-                    new EmojiMood(null, "🎧", "Relajante", "Lo-fi"),
-                    new EmojiMood(null, "🌊", "Ondulante", "Chillwave"),
-                    new EmojiMood(null, "💾", "Nostálgico", "Synthwave"),
-                    new EmojiMood(null, "🌌", "Trascendente", "Trance"),
-                    new EmojiMood(null, "🏠", "Ritmo", "House"),
-                    new EmojiMood(null, "⚙️", "Mecánico", "Techno"),
-                    new EmojiMood(null, "🤖", "Bajo Pesado", "Dubstep"),
-                    new EmojiMood(null, "🥁", "Percusivo", "Drum & Bass"),
-                    new EmojiMood(null, "🇯🇲", "Caribeño", "Reggae"),
-                    new EmojiMood(null, "🌶️", "Picante", "Salsa"),
-                    new EmojiMood(null, "💃", "Apasionado", "Flamenco"),
-                    new EmojiMood(null, "🙏", "Espiritual", "Gospel"),
-                    new EmojiMood(null, "🎭", "Teatral", "Opera"),
-                    new EmojiMood(null, "🌍", "Global", "World Music"),
-                    new EmojiMood(null, "🇮🇳", "Bollywood", "Bollywood"),
-                    new EmojiMood(null, "🎌", "Anime", "Anime OST"),
-                    new EmojiMood(null, "🎮", "Gamer", "Video Game OST"),
-                    new EmojiMood(null, "🎬", "Cinemático", "Film Score"),
-                    new EmojiMood(null, "👶", "Infantil", "Childrens Music"),
-                    new EmojiMood(null, "🎄", "Navideño", "Holiday Music"),
-                    new EmojiMood(null, "🗣️", "Narrativo", "Sp spoken Word"),
-                    new EmojiMood(null, "😂", "Cómico", "Comedy"),
-                    new EmojiMood(null, "💸", "Moderno", "Trap"),
-                    new EmojiMood(null, "🔪", "Intenso Urbano", "Drill"),
-                    new EmojiMood(null, "🇬🇧", "Urbano Británico", "Grime"),
-                    new EmojiMood(null, "🇰🇷", "R&B Coreano", "K-R&B"),
-                    new EmojiMood(null, "🇯🇵", "Rock Japonés", "J-Rock"),
-                    new EmojiMood(null, "🛹", "Juvenil", "Pop Punk"),
-                    new EmojiMood(null, "🖤", "Melancólico Alternativo", "Emo"),
-                    new EmojiMood(null, "🪕", "Folk Punk", "Folk Punk"),
-                    new EmojiMood(null, "💡", "Indie Pop", "Indie Pop"),
-                    new EmojiMood(null, "☁️", "Dream Pop", "Dream Pop"),
-                    new EmojiMood(null, "🏛️", "Neoclásico", "Neoclassical"),
-                    new EmojiMood(null, "🎶", "Canto", "Choral"),
-                    new EmojiMood(null, "🧘‍♂️", "Paz", "New Age"),
-                    new EmojiMood(null, "🧖‍♀️", "Relajación", "Spa Music"),
-                    new EmojiMood(null, "🍃", "Sonidos Naturales", "Nature Sounds"),
-                    new EmojiMood(null, "👂", "ASMR", "ASMR"),
-                    new EmojiMood(null, "📚", "Educativo", "Educational Music"),
-                    new EmojiMood(null, "🤪", "Novedad", "Novelty Songs"),
-                    new EmojiMood(null, "✊", "Protesta", "Political Hip Hop"),
-                    new EmojiMood(null, "👑", "Épico Metal", "Power Metal"),
-                    new EmojiMood(null, "🪓", "Viking Metal", "Viking Metal"),
-                    new EmojiMood(null, "🏴‍☠️", "Pirate Metal", "Pirate Metal"),
-                    new EmojiMood(null, "🛡️", "Medieval Metal", "Medieval Metal"),
-                    new EmojiMood(null, "🌲", "Pagan Metal", "Pagan Metal"),
-                    new EmojiMood(null, "😈", "Blackened Thrash Metal", "Blackened Thrash Metal"),
-                    new EmojiMood(null, "🔬", "Technical Death Metal", "Technical Death Metal"),
-                    new EmojiMood(null, "🩸", "Brutal Death Metal", "Brutal Death Metal"),
-                    new EmojiMood(null, "👊", "Slam Death Metal", "Slam Death Metal"),
-                    new EmojiMood(null, "🧩", "Progressive Death Metal", "Progressive Death Metal"),
-                    new EmojiMood(null, "🎼", "Melodic Death Metal", "Melodic Death Metal"),
-                    new EmojiMood(null, "⚰️", "Funeral Doom Metal", "Funeral Doom Metal"),
-                    new EmojiMood(null, "🌬️", "Atmospheric Black Metal", "Atmospheric Black Metal"),
-                    new EmojiMood(null, "😭", "Depressive Suicidal Black Metal (DSBM)", "Depressive Suicidal Black Metal (DSBM)"),
-                    new EmojiMood(null, "🌠", "Post-Black Metal", "Post-Black Metal"),
-                    new EmojiMood(null, "🔪", "Raw Black Metal", "Raw Black Metal"),
-                    new EmojiMood(null, "🌫️", "Blackgaze", "Blackgaze"),
-                    new EmojiMood(null, "🏭", "Industrial Black Metal", "Industrial Black Metal"),
-                    new EmojiMood(null, "🌾", "Folk Black Metal", "Folk Black Metal"),
-                    new EmojiMood(null, "💣", "War Metal", "War Metal"),
-                    new EmojiMood(null, "💢", "Powerviolence", "Powerviolence"),
-                    new EmojiMood(null, "🚫", "No Wave", "No Wave"),
-                    new EmojiMood(null, "🎨", "Free Improvisation", "Free Improvisation"),
-                    new EmojiMood(null, "🧪", "Experimental Rock", "Experimental Rock"),
-                    new EmojiMood(null, "🤘", "Avant-garde Metal", "Avant-garde Metal"),
-                    new EmojiMood(null, "嗡", "Drone Metal", "Drone Metal"),
-                    new EmojiMood(null, "🧫", "Sludgecore", "Sludgecore"),
-                    new EmojiMood(null, "🌉", "Post-Metal", "Post-Metal"),
-                    new EmojiMood(null, "🌿", "Stoner Doom", "Stoner Doom"),
-                    new EmojiMood(null, "🍄", "Psychedelic Doom", "Psychedelic Doom"),
-                    new EmojiMood(null, "🕯️", "Traditional Doom Metal", "Traditional Doom Metal"),
-                    new EmojiMood(null, "⚔️", "Epic Doom Metal", "Epic Doom Metal"),
-                    new EmojiMood(null, "🍂", "Folk Doom Metal", "Folk Doom Metal"),
-                    new EmojiMood(null, "🌪️", "Progressive Doom Metal", "Progressive Doom Metal"),
-                    new EmojiMood(null, "🧪", "Sludge Doom Metal", "Sludge Doom Metal")
-                );
-
-                repository.saveAll(initialData);
-                System.out.println("Datos iniciales de emojis y géneros cargados en Firestore.");
+    CommandLineRunner initDatabase(EmojiMoodRepository repository) {
+        return args -> Thread.ofPlatform()
+                .name("emoji-seeder")
+                .daemon()
+                .start(() -> seed(repository));
+    }
+
+    /**
+     * Spring Boot marca la aplicación como lista al terminar el arranque; si la carga de
+     * datos aún no ha terminado, se vuelve a marcar como no lista hasta que termine.
+     */
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
+        synchronized (readinessLock) {
+            if (!seedingDone) {
+                AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+            }
+        }
+    }
+
+    private void seed(EmojiMoodRepository repository) {
+        try {
+            List<EmojiMood> initialData = initialData();
+            String checksum = checksum(initialData);
+
+            Optional<SeedMetadata> applied = repository.findSeedMetadata();
+            if (applied.isPresent() && applied.get().getVersion() == SEED_VERSION && checksum.equals(applied.get().getChecksum())) {
+                System.out.println("Los datos iniciales (versión " + SEED_VERSION + ") ya están aplicados. No se cargarán datos iniciales.");
+                return;
+            }
+
+            if (applied.map(SeedMetadata::getVersion).orElse(0) < FIRST_EMOJI_KEYED_VERSION && repository.hasAny()) {
+                // Colección creada con IDs aleatorios: se pasa a IDs por emoji antes de completar los datos
+                repository.migrateToEmojiKeys();
+            }
+
+            List<EmojiMood> pending;
+            if (!repository.hasAny()) {
+                System.out.println("Cargando datos iniciales de emojis y géneros...");
+                pending = initialData;
             } else {
-                System.out.println("La colección 'emojiMoods' en Firestore ya contiene datos. No se cargarán datos iniciales.");
+                // Sólo se escriben los emojis de los datos iniciales que aún no existen
+                Set<String> existing = repository.findAll().stream()
+                        .map(DatabaseInitializer::seedKey)
+                        .collect(Collectors.toSet());
+                pending = initialData.stream()
+                        .filter(mood -> !existing.contains(seedKey(mood)))
+                        .collect(Collectors.toList());
+                System.out.println("Aplicando " + pending.size() + " entradas nuevas de los datos iniciales (versión " + SEED_VERSION + ").");
+            }
+
+            if (!pending.isEmpty()) {
+                BulkOperationResult result = repository.createAll(pending);
+                if (result.hasFailures()) {
+                    // Sin guardar los metadatos, el siguiente arranque volverá a intentarlo
+                    System.err.println("No se pudieron cargar " + result.getFailed() + " entradas de los datos iniciales.");
+                    return;
+                }
+            }
+            repository.saveSeedMetadata(new SeedMetadata(SEED_VERSION, checksum, initialData.size()));
+            System.out.println("Datos iniciales de emojis y géneros (versión " + SEED_VERSION + ") aplicados.");
+        } catch (RuntimeException e) {
+            System.err.println("Error al cargar los datos iniciales: " + e.getMessage());
+        } finally {
+            // Aunque falle la carga, el servicio puede responder con los géneros y canciones de respaldo
+            synchronized (readinessLock) {
+                seedingDone = true;
+                AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+            }
+        }
+    }
+
+    private static String seedKey(EmojiMood mood) {
+        return EmojiKeys.canonicalKey(mood.getEmoji());
+    }
+
+    private static String checksum(List<EmojiMood> initialData) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (EmojiMood mood : initialData) {
+                String line = mood.getEmoji() + "|" + mood.getMoodDescription() + "|" + mood.getGenreHint() + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
             }
-        };
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Datos iniciales. Cada emoji aparece una sola vez: el ID del documento es su clave canónica.
+     */
+    public static List<EmojiMood> initialData() {
+        return Arrays.asList(
+            new EmojiMood(null, "😄", "Alegre", "Pop"),
+            new EmojiMood(null, "🎉", "Fiesta", "Dance"),
+            new EmojiMood(null, "🥳", "Celebración", "Reggaeton"),
+            new EmojiMood(null, "🌧️", "Melancólico", "Balada"),
+            new EmojiMood(null, "😢", "Triste", "Blues"),
+            new EmojiMood(null, "💔", "Desamor", "Indie"),
+            new EmojiMood(null, "💪", "Enérgico", "Rock"),
+            new EmojiMood(null, "⚡", "Intenso", "Electrónica"),
+            new EmojiMood(null, "🔥", "Motivador", "Hip Hop"),
+            new EmojiMood(null, "🧘‍♀️", "Relajado", "Jazz"),
+            new EmojiMood(null, "😎", "Confiado", "R&B"),
+            new EmojiMood(null, "🤔", "Pensativo", "Clásica"),
+            new EmojiMood(null, "😴", "Tranquilo", "Ambient"),
+            new EmojiMood(null, "🤩", "Emocionado", "K-Pop"),
+            new EmojiMood(null, "🎸", "Rebelde", "Heavy Metal"),
+            new EmojiMood(null, "🤠", "Campestre", "Country"),
+            new EmojiMood(null, "🌳", "Natural", "Folk"),
+            new EmojiMood(null, "🎷", "Sofisticado", "Smooth Jazz"),
+            new EmojiMood(null, "🎺", "Marcha", "Big Band"),
+            new EmojiMood(null, "🎤", "Vocal", "Soul"),
+            new EmojiMood(null, "🕺", "Groovy", "Funk"),
+            new EmojiMood(null, "💿", "Retro", "Disco"),
+            new EmojiMood(null, "💥", "Agresivo", "Punk"),
+            new EmojiMood(null, "🌫️", "Distorsionado", "Grunge"),
+            new EmojiMood(null, "⛓️", "Pesado", "Metalcore"),
+            new EmojiMood(null, "💀", "Extremo", "Death Metal"),
+            new EmojiMood(null, "🌑", "Oscuro", "Black Metal"),
+            new EmojiMood(null, "🏰", "Épico", "Symphonic Metal"),
+            new EmojiMood(null, "🌀", "Complejo", "Progressive Rock"),
+            new EmojiMood(null, "🌈", "Alucinante", "Psychedelic Rock"),
+            new EmojiMood(null, "☕", "Acogedor", "Acoustic"),
+            new EmojiMood(null, "🎧", "Relajante", "Lo-fi"),
+            new EmojiMood(null, "🌊", "Ondulante", "Chillwave"),
+            new EmojiMood(null, "💾", "Nostálgico", "Synthwave"),
+            new EmojiMood(null, "🌌", "Trascendente", "Trance"),
+            new EmojiMood(null, "🏠", "Ritmo", "House"),
+            new EmojiMood(null, "⚙️", "Mecánico", "Techno"),
+            new EmojiMood(null, "🤖", "Bajo Pesado", "Dubstep"),
+            new EmojiMood(null, "🥁", "Percusivo", "Drum & Bass"),
+            new EmojiMood(null, "🇯🇲", "Caribeño", "Reggae"),
+            new EmojiMood(null, "🌶️", "Picante", "Salsa"),
+            new EmojiMood(null, "💃", "Apasionado", "Flamenco"),
+            new EmojiMood(null, "🙏", "Espiritual", "Gospel"),
+            new EmojiMood(null, "🎭", "Teatral", "Opera"),
+            new EmojiMood(null, "🌍", "Global", "World Music"),
+            new EmojiMood(null, "🇮🇳", "Bollywood", "Bollywood"),
+            new EmojiMood(null, "🎌", "Anime", "Anime OST"),
+            new EmojiMood(null, "🎮", "Gamer", "Video Game OST"),
+            new EmojiMood(null, "🎬", "Cinemático", "Film Score"),
+            new EmojiMood(null, "👶", "Infantil", "Childrens Music"),
+            new EmojiMood(null, "🎄", "Navideño", "Holiday Music"),
+            new EmojiMood(null, "🗣️", "Narrativo", "Sp spoken Word"),
+            new EmojiMood(null, "😂", "Cómico", "Comedy"),
+            new EmojiMood(null, "💸", "Moderno", "Trap"),
+            new EmojiMood(null, "🔪", "Intenso Urbano", "Drill"),
+            new EmojiMood(null, "🇬🇧", "Urbano Británico", "Grime"),
+            new EmojiMood(null, "🇰🇷", "R&B Coreano", "K-R&B"),
+            new EmojiMood(null, "🇯🇵", "Rock Japonés", "J-Rock"),
+            new EmojiMood(null, "🛹", "Juvenil", "Pop Punk"),
+            new EmojiMood(null, "🖤", "Melancólico Alternativo", "Emo"),
+            new EmojiMood(null, "🪕", "Folk Punk", "Folk Punk"),
+            new EmojiMood(null, "💡", "Indie Pop", "Indie Pop"),
+            new EmojiMood(null, "☁️", "Dream Pop", "Dream Pop"),
+            new EmojiMood(null, "🏛️", "Neoclásico", "Neoclassical"),
+            new EmojiMood(null, "🎶", "Canto", "Choral"),
+            new EmojiMood(null, "🧘‍♂️", "Paz", "New Age"),
+            new EmojiMood(null, "🧖‍♀️", "Relajación", "Spa Music"),
+            new EmojiMood(null, "🍃", "Sonidos Naturales", "Nature Sounds"),
+            new EmojiMood(null, "👂", "ASMR", "ASMR"),
+            new EmojiMood(null, "📚", "Educativo", "Educational Music"),
+            new EmojiMood(null, "🤪", "Novedad", "Novelty Songs"),
+            new EmojiMood(null, "✊", "Protesta", "Political Hip Hop"),
+            new EmojiMood(null, "👑", "Épico Metal", "Power Metal"),
+            new EmojiMood(null, "🪓", "Viking Metal", "Viking Metal"),
+            new EmojiMood(null, "🏴‍☠️", "Pirate Metal", "Pirate Metal"),
+            new EmojiMood(null, "🛡️", "Medieval Metal", "Medieval Metal"),
+            new EmojiMood(null, "🌲", "Pagan Metal", "Pagan Metal"),
+            new EmojiMood(null, "😈", "Blackened Thrash Metal", "Blackened Thrash Metal"),
+            new EmojiMood(null, "🔬", "Technical Death Metal", "Technical Death Metal"),
+            new EmojiMood(null, "🩸", "Brutal Death Metal", "Brutal Death Metal"),
+            new EmojiMood(null, "👊", "Slam Death Metal", "Slam Death Metal"),
+            new EmojiMood(null, "🧩", "Progressive Death Metal", "Progressive Death Metal"),
+            new EmojiMood(null, "🎼", "Melodic Death Metal", "Melodic Death Metal"),
+            new EmojiMood(null, "⚰️", "Funeral Doom Metal", "Funeral Doom Metal"),
+            new EmojiMood(null, "🌬️", "Atmospheric Black Metal", "Atmospheric Black Metal"),
+            new EmojiMood(null, "😭", "Depressive Suicidal Black Metal (DSBM)", "Depressive Suicidal Black Metal (DSBM)"),
+            new EmojiMood(null, "🌠", "Post-Black Metal", "Post-Black Metal"),
+            new EmojiMood(null, "🏭", "Industrial Black Metal", "Industrial Black Metal"),
+            new EmojiMood(null, "🌾", "Folk Black Metal", "Folk Black Metal"),
+            new EmojiMood(null, "💣", "War Metal", "War Metal"),
+            new EmojiMood(null, "💢", "Powerviolence", "Powerviolence"),
+            new EmojiMood(null, "🚫", "No Wave", "No Wave"),
+            new EmojiMood(null, "🎨", "Free Improvisation", "Free Improvisation"),
+            new EmojiMood(null, "🧪", "Experimental Rock", "Experimental Rock"),
+            new EmojiMood(null, "🤘", "Avant-garde Metal", "Avant-garde Metal"),
+            new EmojiMood(null, "嗡", "Drone Metal", "Drone Metal"),
+            new EmojiMood(null, "🧫", "Sludgecore", "Sludgecore"),
+            new EmojiMood(null, "🌉", "Post-Metal", "Post-Metal"),
+            new EmojiMood(null, "🌿", "Stoner Doom", "Stoner Doom"),
+            new EmojiMood(null, "🍄", "Psychedelic Doom", "Psychedelic Doom"),
+            new EmojiMood(null, "🕯️", "Traditional Doom Metal", "Traditional Doom Metal"),
+            new EmojiMood(null, "⚔️", "Epic Doom Metal", "Epic Doom Metal"),
+            new EmojiMood(null, "🍂", "Folk Doom Metal", "Folk Doom Metal"),
+            new EmojiMood(null, "🌪️", "Progressive Doom Metal", "Progressive Doom Metal")
+        );
     }
-}
\ No newline at end of file
+}
@@ -1,36 +1,51 @@
 package com.ejemplo.musicaemoji.config;
 
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.cloud.FirestoreClient;
 import org.springframework.beans.factory.annotation.Value; // Importa Value para inyectar la variable de entorno
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.io.ByteArrayInputStream; // Para leer el String como InputStream
 import java.io.IOException;
 import java.io.InputStream;
 
 @Configuration
+@Profile("!local") // Con el perfil "local" se usa el almacén local y no hace falta Firebase
 public class FirebaseConfig {
 
     // Inyecta el contenido completo del JSON de la clave de servicio desde una variable de entorno
     // Render inyectará el valor de la variable de entorno FIREBASE_SERVICE_ACCOUNT_KEY
-    @Value("${FIREBASE_SERVICE_ACCOUNT_KEY}") // Nombre de la variable de entorno en Render
+    @Value("${FIREBASE_SERVICE_ACCOUNT_KEY:}") // Nombre de la variable de entorno en Render
     private String firebaseServiceAccountKeyJson;
 
+    // Emulador de Firestore (host:puerto) para desarrollo y pruebas de carga; vacío en producción
+    @Value("${firestore.emulator-host:${FIRESTORE_EMULATOR_HOST:}}")
+    private String firestoreEmulatorHost;
+
     private static final String FIREBASE_PROJECT_ID = "music-recommender-db1"; // <-- ¡TU ID DE PROYECTO DE FIREBASE!
 
     @Bean
     public FirebaseApp initializeFirebaseApp() throws IOException {
-        // Convierte el String JSON de la variable de entorno en un InputStream
-        InputStream serviceAccount = new ByteArrayInputStream(firebaseServiceAccountKeyJson.getBytes());
+        GoogleCredentials credentials;
+        if (usesEmulator()) {
+            // El emulador no valida credenciales, así que no hace falta la clave de servicio
+            credentials = GoogleCredentials.create(new AccessToken("emulator", null));
+        } else {
+            // Convierte el String JSON de la variable de entorno en un InputStream
+            InputStream serviceAccount = new ByteArrayInputStream(firebaseServiceAccountKeyJson.getBytes());
+            credentials = GoogleCredentials.fromStream(serviceAccount);
+        }
 
         // Configura las opciones de Firebase
         FirebaseOptions options = FirebaseOptions.builder()
-                .setCredentials(GoogleCredentials.fromStream(serviceAccount))
+                .setCredentials(credentials)
                 .setProjectId(FIREBASE_PROJECT_ID)
                 .build();
 
@@ -46,7 +61,19 @@ public class FirebaseConfig {
 
     @Bean
     public Firestore getFirestore(FirebaseApp firebaseApp) {
+        if (usesEmulator()) {
+            System.out.println("Obteniendo instancia de Firestore del emulador en " + firestoreEmulatorHost + "...");
+            return FirestoreOptions.newBuilder()
+                    .setProjectId(FIREBASE_PROJECT_ID)
+                    .setEmulatorHost(firestoreEmulatorHost)
+                    .build()
+                    .getService();
+        }
         System.out.println("Obteniendo instancia de Firestore...");
         return FirestoreClient.getFirestore(firebaseApp);
     }
+
+    private boolean usesEmulator() {
+        return firestoreEmulatorHost != null && !firestoreEmulatorHost.isBlank();
+    }
 }
@@ -0,0 +1,93 @@
+package com.ejemplo.musicaemoji.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Filtro de WebClient que mide cada llamada HTTP a Spotify con el temporizador
+ * {@code spotify.client.requests}, etiquetado por endpoint y código de estado.
+ * Cada petición indica su endpoint con el atributo {@link #ENDPOINT_ATTRIBUTE}.
+ * El tiempo llega hasta la recepción de las cabeceras de la respuesta. Los fallos de red se
+ * etiquetan como "IO_ERROR" y las llamadas canceladas (timeout, plazo vencido o petición
+ * duplicada que pierde) como "CANCELLED".
+ * Los temporizadores se crean la primera vez que aparece cada estado y después se leen de un
+ * array, así que medir una llamada no reserva memoria.
+ */
+@Component
+public class SpotifyClientMetrics implements ExchangeFilterFunction {
+
+    public static final String ENDPOINT_ATTRIBUTE = SpotifyClientMetrics.class.getName() + ".endpoint";
+
+    public static final String SEARCH = "search";
+    public static final String RECOMMENDATIONS = "recommendations";
+    public static final String GENRE_SEEDS = "genre-seeds";
+    public static final String TOKEN = "token";
+    private static final String OTHER = "other";
+
+    // Posiciones reservadas en el array de temporizadores; los estados HTTP van de 100 a 599
+    private static final int IO_ERROR = 0;
+    private static final int CANCELLED = 1;
+    private static final int MAX_STATUS = 599;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointTimers> timersByEndpoint;
+    private final EndpointTimers otherTimers;
+
+    public SpotifyClientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.timersByEndpoint = Map.of(
+                SEARCH, new EndpointTimers(SEARCH),
+                RECOMMENDATIONS, new EndpointTimers(RECOMMENDATIONS),
+                GENRE_SEEDS, new EndpointTimers(GENRE_SEEDS),
+                TOKEN, new EndpointTimers(TOKEN));
+        this.otherTimers = new EndpointTimers(OTHER);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        Object endpoint = request.attributes().get(ENDPOINT_ATTRIBUTE);
+        EndpointTimers timers = endpoint == null ? otherTimers : timersByEndpoint.getOrDefault(endpoint, otherTimers);
+        long start = System.nanoTime();
+        return next.exchange(request)
+                .doOnSuccess(response -> timers.record(response.statusCode().value(), start))
+                .doOnError(error -> timers.record(IO_ERROR, start))
+                .doOnCancel(() -> timers.record(CANCELLED, start));
+    }
+
+    /**
+     * Temporizadores de un endpoint, indexados por código de estado.
+     */
+    private final class EndpointTimers {
+        private final String endpoint;
+        private final AtomicReferenceArray<Timer> byStatus = new AtomicReferenceArray<>(MAX_STATUS + 1);
+
+        private EndpointTimers(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void record(int status, long startNanos) {
+            int index = status <= MAX_STATUS ? status : IO_ERROR;
+            Timer timer = byStatus.get(index);
+            if (timer == null) {
+                // Si dos hilos lo crean a la vez, el registro devuelve el mismo temporizador a ambos
+                timer = Timer.builder("spotify.client.requests")
+                        .description("Llamadas HTTP a Spotify por endpoint y estado")
+                        .tag("endpoint", endpoint)
+                        .tag("status", index == IO_ERROR ? "IO_ERROR" : index == CANCELLED ? "CANCELLED" : String.valueOf(index))
+                        .register(meterRegistry);
+                byStatus.set(index, timer);
+            }
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
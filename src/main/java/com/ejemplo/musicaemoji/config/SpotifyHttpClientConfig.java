@@ -0,0 +1,67 @@
+package com.ejemplo.musicaemoji.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente HTTP de Reactor Netty compartido por todas las llamadas a Spotify (autenticación y API).
+ * Spring Boot aplica este conector al WebClient.Builder, así que SpotifyTokenProvider y
+ * SpotifyService reutilizan el mismo pool de conexiones.
+ */
+@Configuration
+public class SpotifyHttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider spotifyConnectionProvider(SpotifyHttpPoolMetrics poolMetrics,
+                                                        @Value("${spotify.http.max-connections:100}") int maxConnections,
+                                                        @Value("${spotify.http.pending-acquire-max:1000}") int pendingAcquireMax,
+                                                        @Value("${spotify.http.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeoutMillis,
+                                                        @Value("${spotify.http.max-idle-ms:30000}") long maxIdleMillis,
+                                                        @Value("${spotify.http.max-life-ms:300000}") long maxLifeMillis,
+                                                        @Value("${spotify.http.evict-interval-ms:30000}") long evictIntervalMillis) {
+        return ConnectionProvider.builder("spotify")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+                .maxIdleTime(Duration.ofMillis(maxIdleMillis)) // Por debajo del cierre por inactividad del servidor
+                .maxLifeTime(Duration.ofMillis(maxLifeMillis))
+                .evictInBackground(Duration.ofMillis(evictIntervalMillis))
+                .metrics(true, () -> poolMetrics)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector spotifyHttpConnector(ConnectionProvider spotifyConnectionProvider,
+                                                    @Value("${spotify.http.connect-timeout-ms:2000}") int connectTimeoutMillis,
+                                                    @Value("${spotify.http.response-timeout-ms:5000}") long responseTimeoutMillis,
+                                                    @Value("${spotify.http.read-timeout-ms:5000}") long readTimeoutMillis,
+                                                    @Value("${spotify.http.write-timeout-ms:5000}") long writeTimeoutMillis,
+                                                    @Value("${spotify.http.http2-enabled:true}") boolean http2Enabled) {
+        HttpClient httpClient = HttpClient.create(spotifyConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMillis))
+                .compress(true) // Pide gzip y descomprime la respuesta
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMillis, TimeUnit.MILLISECONDS)));
+        if (http2Enabled) {
+            // HTTP/2 se negocia por ALPN sobre TLS; si el servidor no lo admite se usa HTTP/1.1
+            httpClient = httpClient.secure().protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ejemplo.musicaemoji.config;
+
+import com.ejemplo.musicaemoji.model.HttpPoolStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Recoge las métricas de los pools de conexiones HTTP hacia Spotify (uno por host remoto:
+ * accounts.spotify.com y api.spotify.com) para poder consultarlas desde la API de administración.
+ * También las publica en Micrometer como {@code spotify.http.pool.connections} (por estado) y
+ * {@code spotify.http.pool.pending}, etiquetadas por host remoto.
+ */
+@Component
+public class SpotifyHttpPoolMetrics implements ConnectionProvider.MeterRegistrar {
+
+    private final Map<String, ConnectionPoolMetrics> poolsByAddress = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> metersByAddress = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SpotifyHttpPoolMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        String address = remoteAddress.toString();
+        poolsByAddress.put(address, metrics);
+        metersByAddress.put(address, List.of(
+                gauge("spotify.http.pool.connections", address, "active", metrics, ConnectionPoolMetrics::acquiredSize),
+                gauge("spotify.http.pool.connections", address, "idle", metrics, ConnectionPoolMetrics::idleSize),
+                gauge("spotify.http.pool.pending", address, null, metrics, ConnectionPoolMetrics::pendingAcquireSize)));
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        String address = remoteAddress.toString();
+        poolsByAddress.remove(address);
+        List<Meter> meters = metersByAddress.remove(address);
+        if (meters != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    /**
+     * Devuelve el estado actual de cada pool.
+     * @return Conexiones activas, ociosas y peticiones pendientes por host remoto.
+     */
+    public List<HttpPoolStats> getStats() {
+        return poolsByAddress.entrySet().stream()
+                .map(entry -> {
+                    ConnectionPoolMetrics metrics = entry.getValue();
+                    return new HttpPoolStats(entry.getKey(), metrics.acquiredSize(), metrics.idleSize(),
+                            metrics.allocatedSize(), metrics.pendingAcquireSize(),
+                            metrics.maxAllocatedSize(), metrics.maxPendingAcquireSize());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Meter gauge(String name, String address, String state, ConnectionPoolMetrics metrics,
+                        ToDoubleFunction<ConnectionPoolMetrics> value) {
+        Gauge.Builder<ConnectionPoolMetrics> builder = Gauge.builder(name, metrics, value)
+                .tag("remote.address", address)
+                .strongReference(true);
+        if (state != null) {
+            builder.tag("state", state);
+        }
+        return builder.register(meterRegistry);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ejemplo.musicaemoji.controller;
+
+import com.ejemplo.musicaemoji.config.SpotifyHttpPoolMetrics;
+import com.ejemplo.musicaemoji.model.BulkOperationResult;
+import com.ejemplo.musicaemoji.model.CandidatePoolStats;
+import com.ejemplo.musicaemoji.model.CoalescingStats;
+import com.ejemplo.musicaemoji.model.EmojiIndexStatus;
+import com.ejemplo.musicaemoji.model.HttpPoolStats;
+import com.ejemplo.musicaemoji.model.SpotifyCacheStats;
+import com.ejemplo.musicaemoji.model.SpotifyRateLimiterStats;
+import com.ejemplo.musicaemoji.model.SpotifyResilienceStats;
+import com.ejemplo.musicaemoji.model.SpotifyTokenStats;
+import com.ejemplo.musicaemoji.model.WarmerStatus;
+import com.ejemplo.musicaemoji.service.CatalogWarmer;
+import com.ejemplo.musicaemoji.service.EmojiMoodIndex;
+import com.ejemplo.musicaemoji.service.RecommendationService;
+import com.ejemplo.musicaemoji.service.SpotifyCallGuard;
+import com.ejemplo.musicaemoji.service.SpotifyRateLimiter;
+import com.ejemplo.musicaemoji.service.SpotifyService;
+import com.ejemplo.musicaemoji.service.SpotifyTokenProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final EmojiMoodIndex emojiMoodIndex;
+    private final SpotifyService spotifyService;
+    private final SpotifyTokenProvider spotifyTokenProvider;
+    private final RecommendationService recommendationService;
+    private final CatalogWarmer catalogWarmer;
+    private final SpotifyCallGuard spotifyCallGuard;
+    private final SpotifyRateLimiter spotifyRateLimiter;
+    private final SpotifyHttpPoolMetrics spotifyHttpPoolMetrics;
+
+    @Autowired
+    public AdminController(EmojiMoodIndex emojiMoodIndex, SpotifyService spotifyService,
+                           SpotifyTokenProvider spotifyTokenProvider, RecommendationService recommendationService,
+                           CatalogWarmer catalogWarmer, SpotifyCallGuard spotifyCallGuard,
+                           SpotifyRateLimiter spotifyRateLimiter, SpotifyHttpPoolMetrics spotifyHttpPoolMetrics) {
+        this.emojiMoodIndex = emojiMoodIndex;
+        this.spotifyService = spotifyService;
+        this.spotifyTokenProvider = spotifyTokenProvider;
+        this.recommendationService = recommendationService;
+        this.catalogWarmer = catalogWarmer;
+        this.spotifyCallGuard = spotifyCallGuard;
+        this.spotifyRateLimiter = spotifyRateLimiter;
+        this.spotifyHttpPoolMetrics = spotifyHttpPoolMetrics;
+    }
+
+    /**
+     * Devuelve el estado del índice en memoria emoji → género.
+     * @return Versión, tamaño y momento de la última recarga del índice.
+     */
+    @GetMapping("/emoji-index")
+    public ResponseEntity<EmojiIndexStatus> getEmojiIndexStatus() {
+        return ResponseEntity.ok(emojiMoodIndex.getStatus());
+    }
+
+    /**
+     * Devuelve los contadores de la caché de búsquedas de Spotify.
+     * @return Aciertos, fallos, desalojos y tamaño de la caché.
+     */
+    @GetMapping("/spotify-cache")
+    public ResponseEntity<SpotifyCacheStats> getSpotifyCacheStats() {
+        return ResponseEntity.ok(spotifyService.getCacheStats());
+    }
+
+    /**
+     * Devuelve las métricas de los pools de canciones candidatas por género.
+     * @return Géneros y canciones en memoria, muestras servidas y páginas pedidas; 404 si los pools están desactivados.
+     */
+    @GetMapping("/spotify-pools")
+    public ResponseEntity<CandidatePoolStats> getCandidatePoolStats() {
+        CandidatePoolStats stats = spotifyService.getCandidatePoolStats();
+        return stats == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Devuelve el estado de la capa de resiliencia de las llamadas a Spotify.
+     * @return Estado del circuito, límite adaptativo, timeouts y peticiones duplicadas.
+     */
+    @GetMapping("/spotify-resilience")
+    public ResponseEntity<SpotifyResilienceStats> getSpotifyResilienceStats() {
+        return ResponseEntity.ok(spotifyCallGuard.getStats());
+    }
+
+    /**
+     * Devuelve el estado del planificador de llamadas a Spotify.
+     * @return Tokens disponibles, profundidad de cada cola, esperas medias y pausas por 429.
+     */
+    @GetMapping("/spotify-rate-limiter")
+    public ResponseEntity<SpotifyRateLimiterStats> getSpotifyRateLimiterStats() {
+        return ResponseEntity.ok(spotifyRateLimiter.getStats());
+    }
+
+    /**
+     * Devuelve el estado de los pools de conexiones HTTP hacia Spotify.
+     * @return Conexiones activas, ociosas y peticiones esperando conexión, por host.
+     */
+    @GetMapping("/spotify-http-pool")
+    public ResponseEntity<List<HttpPoolStats>> getSpotifyHttpPoolStats() {
+        return ResponseEntity.ok(spotifyHttpPoolMetrics.getStats());
+    }
+
+    /**
+     * Devuelve las métricas de renovación del token de Spotify.
+     * @return Número de renovaciones, latencia y llamadas que esperaron a una renovación.
+     */
+    @GetMapping("/spotify-token")
+    public ResponseEntity<SpotifyTokenStats> getSpotifyTokenStats() {
+        return ResponseEntity.ok(spotifyTokenProvider.getStats());
+    }
+
+    /**
+     * Migra los EmojiMoods con IDs aleatorios a IDs por clave canónica del emoji.
+     * Los emojis repetidos no se migran y se devuelven como fallidos.
+     * @return El resultado de cada documento migrado.
+     */
+    @PostMapping("/emojimoods/migrate-keys")
+    public ResponseEntity<BulkOperationResult> migrateEmojiMoodKeys() {
+        return ResponseEntity.ok(recommendationService.migrateEmojiMoodKeys());
+    }
+
+    /**
+     * Devuelve las métricas de agrupación de recomendaciones idénticas concurrentes.
+     * @return Peticiones, peticiones agrupadas, ratio y espera media de las agrupadas.
+     */
+    @GetMapping("/coalescing")
+    public ResponseEntity<CoalescingStats> getCoalescingStats() {
+        return ResponseEntity.ok(recommendationService.getCoalescingStats());
+    }
+
+    /**
+     * Devuelve el progreso del calentador de canciones por género.
+     * @return Progreso de la pasada actual, fallos y antigüedad de la última pasada completada.
+     */
+    @GetMapping("/warmer")
+    public ResponseEntity<WarmerStatus> getWarmerStatus() {
+        return ResponseEntity.ok(catalogWarmer.getStatus());
+    }
+
+    /**
+     * Lanza una pasada del calentador sin esperar a la siguiente programada.
+     * @return 202 si se inició; 409 si ya había una en curso.
+     */
+    @PostMapping("/warmer/run")
+    public ResponseEntity<WarmerStatus> runWarmer() {
+        boolean started = catalogWarmer.start();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(catalogWarmer.getStatus());
+    }
+}
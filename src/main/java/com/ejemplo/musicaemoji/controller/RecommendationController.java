@@ -1,15 +1,23 @@
 package com.ejemplo.musicaemoji.controller;
 
+import com.ejemplo.musicaemoji.model.BatchRecommendationItem;
+import com.ejemplo.musicaemoji.model.BulkOperationResult;
 import com.ejemplo.musicaemoji.model.EmojiMood;
+import com.ejemplo.musicaemoji.model.RecommendationEvent;
 import com.ejemplo.musicaemoji.model.RecommendationResponse;
 import com.ejemplo.musicaemoji.model.SongDto;
 import com.ejemplo.musicaemoji.service.RecommendationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
@@ -38,16 +46,54 @@ public class RecommendationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Variante no bloqueante del endpoint anterior, con el mismo contrato de entrada y salida.
+     * El hilo de la petición se libera mientras se espera a Spotify, de modo que la concurrencia
+     * queda limitada por las conexiones abiertas y no por el pool de hilos.
+     * @param emojis La cadena de emojis introducida por el usuario.
+     * @return Mono con el ResponseEntity de RecommendationResponse.
+     */
+    @GetMapping("/recommendations/by-emojis/reactive")
+    public Mono<ResponseEntity<RecommendationResponse>> getRecommendationsByEmojisReactive(@RequestParam String emojis) {
+        return recommendationService.recommendByEmojisReactive(emojis)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Variante en streaming: envía primero los géneros y después las canciones de cada género
+     * en cuanto llegan, en lugar de esperar a que terminen todas las búsquedas.
+     * Admite Server-Sent Events (text/event-stream) y NDJSON (application/x-ndjson) según la cabecera Accept.
+     * @param emojis La cadena de emojis introducida por el usuario.
+     * @return Flux de RecommendationEvent: un evento "genres" y un evento "songs" por género.
+     */
+    @GetMapping(value = "/recommendations/by-emojis/stream",
+                produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RecommendationEvent> streamRecommendationsByEmojis(@RequestParam String emojis) {
+        return recommendationService.streamByEmojis(emojis);
+    }
+
+    /**
+     * Recomendaciones para varias cadenas de emojis en una sola llamada.
+     * Spotify se consulta una vez por género distinto de todo el lote.
+     * @param emojis Las cadenas de emojis (como máximo recommendation.batch.max-size).
+     * @return Los géneros y canciones de cada entrada, en el mismo orden; 400 si el lote es demasiado grande.
+     */
+    @PostMapping("/recommendations/batch")
+    public Mono<ResponseEntity<List<BatchRecommendationItem>>> getRecommendationsBatch(@RequestBody List<String> emojis) {
+        return recommendationService.recommendBatch(emojis)
+                .map(ResponseEntity::ok);
+    }
+
     // --- Métodos CRUD para EmojiMood (Adaptados para Firestore) ---
+    // Devuelven CompletableFuture: el hilo de la petición se libera mientras Firestore responde.
 
     /**
      * Obtiene todos los mapeos de emoji a estado de ánimo.
      * @return Lista de todos los objetos EmojiMood.
      */
     @GetMapping("/emojimoods")
-    public ResponseEntity<List<EmojiMood>> getAllEmojiMoods() {
-        List<EmojiMood> emojiMoods = recommendationService.getAllEmojiMoods();
-        return ResponseEntity.ok(emojiMoods);
+    public CompletableFuture<ResponseEntity<List<EmojiMood>>> getAllEmojiMoods() {
+        return recommendationService.getAllEmojiMoods().thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -56,10 +102,10 @@ public class RecommendationController {
      * @return El objeto EmojiMood si se encuentra.
      */
     @GetMapping("/emojimoods/{id}")
-    public ResponseEntity<EmojiMood> getEmojiMoodById(@PathVariable String id) { // ID es String
-        return recommendationService.findById(id)
+    public CompletableFuture<ResponseEntity<EmojiMood>> getEmojiMoodById(@PathVariable String id) { // ID es String
+        return recommendationService.findById(id).thenApply(emojiMood -> emojiMood
                 .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     /**
@@ -68,9 +114,8 @@ public class RecommendationController {
      * @return El objeto EmojiMood creado.
      */
     @PostMapping("/emojimoods")
-    public ResponseEntity<EmojiMood> createEmojiMood(@RequestBody EmojiMood emojiMood) {
-        EmojiMood createdEmojiMood = recommendationService.createEmojiMood(emojiMood);
-        return ResponseEntity.ok(createdEmojiMood);
+    public CompletableFuture<ResponseEntity<EmojiMood>> createEmojiMood(@RequestBody EmojiMood emojiMood) {
+        return recommendationService.createEmojiMood(emojiMood).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -80,9 +125,8 @@ public class RecommendationController {
      * @return El objeto EmojiMood actualizado.
      */
     @PutMapping("/emojimoods/{id}")
-    public ResponseEntity<EmojiMood> updateEmojiMood(@PathVariable String id, @RequestBody EmojiMood updatedEmojiMood) { // ID es String
-        EmojiMood result = recommendationService.updateEmojiMood(id, updatedEmojiMood);
-        return ResponseEntity.ok(result);
+    public CompletableFuture<ResponseEntity<EmojiMood>> updateEmojiMood(@PathVariable String id, @RequestBody EmojiMood updatedEmojiMood) { // ID es String
+        return recommendationService.updateEmojiMood(id, updatedEmojiMood).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -91,8 +135,46 @@ public class RecommendationController {
      * @return ResponseEntity sin contenido si la eliminación fue exitosa.
      */
     @DeleteMapping("/emojimoods/{id}")
-    public ResponseEntity<Void> deleteEmojiMood(@PathVariable String id) { // ID es String
-        recommendationService.deleteEmojiMood(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteEmojiMood(@PathVariable String id) { // ID es String
+        return recommendationService.deleteEmojiMood(id).thenApply(ignored -> ResponseEntity.noContent().build());
+    }
+
+    // --- Operaciones masivas sobre EmojiMood ---
+
+    /**
+     * Crea varios mapeos de emoji en lotes. No sobrescribe: los emojis que ya tienen mapeo
+     * se informan como fallidos.
+     * @param emojiMoods Los EmojiMoods a crear.
+     * @return El resultado de cada documento; 207 si alguno falló (incluidos los que ya existían).
+     */
+    @PostMapping("/emojimoods/bulk")
+    public ResponseEntity<BulkOperationResult> createEmojiMoods(@RequestBody List<EmojiMood> emojiMoods) {
+        return toBulkResponse(recommendationService.createEmojiMoods(emojiMoods));
+    }
+
+    /**
+     * Obtiene varios mapeos de emoji por sus IDs en una sola lectura múltiple.
+     * @param ids Los IDs de los EmojiMoods.
+     * @return Los EmojiMoods encontrados; los IDs inexistentes se omiten.
+     */
+    @PostMapping("/emojimoods/bulk/get")
+    public ResponseEntity<List<EmojiMood>> getEmojiMoodsByIds(@RequestBody List<String> ids) {
+        return ResponseEntity.ok(recommendationService.findByIds(ids));
+    }
+
+    /**
+     * Elimina varios mapeos de emoji en lotes.
+     * @param ids Los IDs de los EmojiMoods a eliminar.
+     * @return El resultado de cada documento; 207 si alguno falló.
+     */
+    @PostMapping("/emojimoods/bulk/delete")
+    public ResponseEntity<BulkOperationResult> deleteEmojiMoods(@RequestBody List<String> ids) {
+        return toBulkResponse(recommendationService.deleteEmojiMoods(ids));
+    }
+
+    private ResponseEntity<BulkOperationResult> toBulkResponse(BulkOperationResult result) {
+        return result.hasFailures()
+                ? ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result)
+                : ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+}
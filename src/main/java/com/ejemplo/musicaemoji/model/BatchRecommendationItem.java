@@ -0,0 +1,17 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRecommendationItem {
+    private String emojis; // Entrada de emojis tal como llegó en el lote
+    private Set<String> genres; // Géneros recomendados para esta entrada
+    private List<SongDto> songs; // Canciones de esos géneros, sin duplicados
+}
@@ -0,0 +1,14 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+    private String id; // ID del documento afectado
+    private boolean success; // Indica si la operación sobre este documento se aplicó
+    private String error; // Mensaje de error si la operación falló (null si tuvo éxito)
+}
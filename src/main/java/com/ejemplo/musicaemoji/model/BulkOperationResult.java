@@ -0,0 +1,20 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResult {
+    private int succeeded; // Número de documentos procesados correctamente
+    private int failed; // Número de documentos que fallaron
+    private List<BulkItemResult> items; // Resultado de cada documento, en el orden de la petición
+
+    public boolean hasFailures() {
+        return failed > 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidatePoolStats {
+    private long genres; // Géneros con pool cargado
+    private long tracks; // Canciones guardadas entre todos los pools
+    private long maxTracks; // Límite de canciones en memoria
+    private long samples; // Peticiones servidas muestreando un pool
+    private long hits; // Muestreos con el pool ya cargado (sin llamar a Spotify)
+    private long misses; // Muestreos que tuvieron que cargar el pool
+    private long evictions; // Pools desalojados por tamaño o caducidad
+    private long refreshes; // Recargas de pools en segundo plano
+    private long pagesFetched; // Páginas de búsqueda pedidas a Spotify para llenar pools
+}
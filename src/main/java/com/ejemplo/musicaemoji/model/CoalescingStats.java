@@ -0,0 +1,16 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoalescingStats {
+    private long requests; // Peticiones recibidas
+    private long coalesced; // Peticiones que se unieron a un cálculo ya en curso
+    private double coalescingRatio; // Proporción de peticiones agrupadas (0..1)
+    private long averageJoinedWaitMillis; // Espera media de las peticiones agrupadas
+    private int inFlight; // Cálculos en curso en este momento
+}
@@ -0,0 +1,18 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmojiIndexStatus {
+    private long version; // Versión del índice, se incrementa en cada recarga
+    private int size; // Número de emojis indexados
+    private Instant lastRefresh; // Momento de la última recarga (null si aún no se ha cargado)
+    private String source; // Origen de la última recarga: "listener" o "polling"
+    private boolean listenerActive; // Indica si el snapshot listener de Firestore está activo
+}
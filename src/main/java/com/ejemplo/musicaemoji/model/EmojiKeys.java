@@ -0,0 +1,44 @@
+package com.ejemplo.musicaemoji.model;
+
+/**
+ * Forma canónica de un emoji, usada como ID de documento de EmojiMood.
+ * La clave son los code points en hexadecimal separados por guiones, sin selectores de
+ * variación (VS15/VS16) ni modificadores de tono de piel: "🌧️" y "🌧" dan "1f327" y
+ * "🧘‍♀️" da "1f9d8-200d-2640". Así dos variantes del mismo emoji no pueden coexistir.
+ */
+public final class EmojiKeys {
+
+    private EmojiKeys() {
+    }
+
+    /**
+     * Calcula la clave canónica de un emoji.
+     * @param emoji El emoji (uno o varios code points).
+     * @return La clave canónica, o una cadena vacía si el emoji es nulo o sólo contiene caracteres ignorables.
+     */
+    public static String canonicalKey(CharSequence emoji) {
+        if (emoji == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(emoji.length() * 6);
+        for (int i = 0; i < emoji.length(); ) {
+            int codePoint = Character.codePointAt(emoji, i);
+            i += Character.charCount(codePoint);
+            if (isIgnorable(codePoint)) {
+                continue;
+            }
+            if (!key.isEmpty()) {
+                key.append('-');
+            }
+            key.append(Integer.toHexString(codePoint));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Indica si un code point no cambia la identidad del emoji: selectores de variación y tonos de piel.
+     */
+    public static boolean isIgnorable(int codePoint) {
+        return codePoint == 0xFE0E || codePoint == 0xFE0F || (codePoint >= 0x1F3FB && codePoint <= 0x1F3FF);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpPoolStats {
+    private String remoteAddress; // Host al que apuntan las conexiones del pool
+    private int active; // Conexiones en uso
+    private int idle; // Conexiones abiertas esperando a ser reutilizadas
+    private int total; // Conexiones abiertas en total
+    private int pendingAcquires; // Peticiones esperando una conexión libre
+    private int maxConnections; // Tamaño máximo del pool
+    private int maxPendingAcquires; // Peticiones en espera admitidas como máximo
+}
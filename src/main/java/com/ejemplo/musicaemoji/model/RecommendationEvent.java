@@ -0,0 +1,21 @@
+package com.ejemplo.musicaemoji.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecommendationEvent {
+    private String type; // "genres" (primer evento) o "songs" (uno por género)
+    private Set<String> genres; // Géneros recomendados, sólo en el evento "genres"
+    private String genre; // Género al que pertenecen las canciones, sólo en eventos "songs"
+    private List<SongDto> songs; // Canciones nuevas del género (sin las ya enviadas en eventos anteriores)
+    private String source; // "spotify", "fallback" o "timeout" en eventos "songs"
+}
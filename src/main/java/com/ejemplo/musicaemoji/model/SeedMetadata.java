@@ -0,0 +1,14 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeedMetadata {
+    private int version; // Versión de los datos iniciales aplicada en Firestore
+    private String checksum; // Checksum SHA-256 de los datos iniciales aplicados
+    private int entries; // Número de entradas de los datos iniciales
+}
@@ -0,0 +1,16 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpotifyCacheStats {
+    private long hits; // Búsquedas servidas desde la caché
+    private long misses; // Búsquedas que tuvieron que ir a Spotify
+    private long evictions; // Entradas desalojadas por tamaño o caducidad
+    private double hitRate; // Proporción de aciertos (0..1)
+    private long size; // Número aproximado de entradas en la caché
+}
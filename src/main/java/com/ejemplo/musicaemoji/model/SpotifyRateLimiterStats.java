@@ -0,0 +1,21 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpotifyRateLimiterStats {
+    private double availableTokens; // Llamadas que pueden salir ya sin esperar
+    private int interactiveQueueDepth; // Peticiones de usuario esperando turno
+    private int backgroundQueueDepth; // Recargas en segundo plano esperando turno
+    private long interactiveDispatched; // Peticiones de usuario despachadas
+    private long backgroundDispatched; // Recargas despachadas
+    private long averageInteractiveWaitMillis; // Espera media en cola de las peticiones de usuario
+    private long averageBackgroundWaitMillis; // Espera media en cola de las recargas
+    private long rejected; // Peticiones rechazadas por cola llena o durante una pausa por 429
+    private long rateLimitedResponses; // Respuestas 429 recibidas
+    private long pausedForMillis; // Tiempo que queda de pausa por Retry-After (0 si no hay pausa)
+}
@@ -0,0 +1,22 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpotifyResilienceStats {
+    private String circuitState; // CLOSED, OPEN o HALF_OPEN
+    private double failureRate; // Tasa de fallos en la ventana del circuito (0..1)
+    private long circuitOpenings; // Veces que se ha abierto el circuito
+    private long shortCircuited; // Llamadas rechazadas con el circuito abierto
+    private int concurrencyLimit; // Límite adaptativo actual de llamadas simultáneas
+    private int inFlight; // Llamadas a Spotify en curso
+    private long limiterRejections; // Llamadas rechazadas por superar el límite
+    private long timeouts; // Llamadas que agotaron el timeout por llamada
+    private long hedgesSent; // Peticiones duplicadas lanzadas por lentitud
+    private long hedgesWon; // Peticiones duplicadas que respondieron antes que la original
+    private long latencyPercentileMillis; // Percentil de latencia usado como umbral de duplicado
+}
@@ -0,0 +1,17 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpotifyTokenStats {
+    private long refreshCount; // Peticiones de token realizadas a accounts.spotify.com
+    private long refreshFailures; // Peticiones de token que fallaron
+    private long waitingCallers; // Llamadas que tuvieron que esperar a una renovación
+    private long averageRefreshMillis; // Latencia media de la renovación
+    private long lastRefreshMillis; // Latencia de la última renovación
+    private long expiresAtMillis; // Caducidad del token actual (epoch millis, 0 si no hay token)
+}
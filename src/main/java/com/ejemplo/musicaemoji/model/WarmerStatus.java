@@ -0,0 +1,22 @@
+package com.ejemplo.musicaemoji.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarmerStatus {
+    private boolean running; // Indica si hay una pasada en curso
+    private int genresTotal; // Géneros de la pasada actual (o de la última)
+    private int genresWarmed; // Géneros ya recalentados en esa pasada
+    private int failures; // Géneros de esa pasada que no obtuvieron canciones
+    private long totalRuns; // Pasadas completadas desde el arranque
+    private long totalFailures; // Fallos acumulados desde el arranque
+    private Instant lastRunStartedAt; // Inicio de la pasada actual o de la última
+    private Instant lastRunFinishedAt; // Fin de la última pasada completada
+    private long lagSeconds; // Segundos desde el inicio de la última pasada completada (antigüedad máxima de los datos)
+}
@@ -0,0 +1,15 @@
+package com.ejemplo.musicaemoji.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Se lanza al intentar crear un EmojiMood para un emoji que ya tiene mapeo.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EmojiMoodAlreadyExistsException extends RuntimeException {
+
+    public EmojiMoodAlreadyExistsException(String emoji) {
+        super("Ya existe un EmojiMood para el emoji " + emoji);
+    }
+}
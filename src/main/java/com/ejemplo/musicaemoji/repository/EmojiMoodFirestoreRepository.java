@@ -1,59 +1,148 @@
 package com.ejemplo.musicaemoji.repository;
 
+import com.ejemplo.musicaemoji.model.BulkItemResult;
+import com.ejemplo.musicaemoji.model.BulkOperationResult;
+import com.ejemplo.musicaemoji.model.EmojiKeys;
 import com.ejemplo.musicaemoji.model.EmojiMood;
+import com.ejemplo.musicaemoji.model.SeedMetadata;
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
 import com.google.cloud.firestore.CollectionReference;
 import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
 import com.google.cloud.firestore.QueryDocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteBatch;
 import com.google.cloud.firestore.WriteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Repository
-public class EmojiMoodFirestoreRepository {
+@Profile("!local")
+public class EmojiMoodFirestoreRepository implements EmojiMoodRepository {
 
+    // Firestore admite como máximo 500 escrituras por lote
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final Firestore firestore;
     private final CollectionReference emojiMoodsCollection;
+    private final DocumentReference seedMetadataDocument;
+
+    // Pool acotado en el que se ejecutan los callbacks de los ApiFuture de Firestore
+    private final ThreadPoolExecutor callbackExecutor;
+    private final long timeoutMillis;
+
+    // Temporizadores firestore.operations por operación; se crean con la primera llamada de cada una
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OperationTimers> operationTimers = new ConcurrentHashMap<>();
 
     @Autowired
-    public EmojiMoodFirestoreRepository(Firestore firestore) {
+    public EmojiMoodFirestoreRepository(Firestore firestore,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${firestore.async.threads:8}") int callbackThreads,
+                                        @Value("${firestore.async.queue-capacity:1000}") int queueCapacity,
+                                        @Value("${firestore.timeout-ms:5000}") long timeoutMillis) {
+        this.firestore = firestore;
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Si la cola se llena, el callback se ejecuta en el hilo que lo registra en lugar de perderse
+        this.callbackExecutor = new ThreadPoolExecutor(callbackThreads, callbackThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "firestore-callback-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
         // Inicializa la referencia a la colección "emojiMoods" en Firestore
         this.emojiMoodsCollection = firestore.collection("emojiMoods");
+        // Documento con la versión y el checksum de los datos iniciales ya aplicados
+        this.seedMetadataDocument = firestore.collection("metadata").document("emojiMoodsSeed");
         System.out.println("FirestoreRepository: Colección 'emojiMoods' inicializada.");
     }
 
+    @PreDestroy
+    public void shutdown() {
+        callbackExecutor.shutdown();
+    }
+
+    // --- Operaciones individuales: cada una tiene una variante asíncrona y otra bloqueante ---
+
+    /**
+     * Guarda un EmojiMood en Firestore sin bloquear. El ID del documento es siempre la clave
+     * canónica del emoji (ver {@link EmojiKeys}) aunque el objeto traiga otro, así que guardar
+     * dos veces el mismo emoji actualiza el mismo documento.
+     * @param emojiMood El objeto EmojiMood a guardar.
+     * @return Futuro con el EmojiMood guardado con su ID de Firestore.
+     */
+    @Override
+    public CompletableFuture<EmojiMood> saveAsync(EmojiMood emojiMood) {
+        // Un ID distinto de la clave permitiría guardar dos variantes del mismo emoji
+        DocumentReference docRef = emojiMoodsCollection.document(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+        emojiMood.setId(docRef.getId()); // Asigna el ID al objeto
+
+        return toCompletableFuture(docRef.set(emojiMood), "save") // Guarda el objeto
+                .thenApply(writeResult -> emojiMood);
+    }
+
     /**
-     * Guarda un EmojiMood en Firestore. Si el ID es nulo, Firestore generará uno.
-     * Si el ID existe, actualizará el documento.
+     * Guarda un EmojiMood en Firestore. Ver {@link #saveAsync(EmojiMood)}.
      * @param emojiMood El objeto EmojiMood a guardar.
      * @return El EmojiMood guardado con su ID de Firestore.
      */
+    @Override
     public EmojiMood save(EmojiMood emojiMood) {
-        DocumentReference docRef;
-        if (emojiMood.getId() == null || emojiMood.getId().isEmpty()) {
-            // Si no hay ID, Firestore genera uno nuevo
-            docRef = emojiMoodsCollection.document();
-            emojiMood.setId(docRef.getId()); // Asigna el ID generado al objeto
-        } else {
-            // Si ya tiene un ID, usa ese para actualizar
-            docRef = emojiMoodsCollection.document(emojiMood.getId());
-        }
+        return await(saveAsync(emojiMood), "Error al guardar EmojiMood en Firestore");
+    }
 
-        ApiFuture<WriteResult> result = docRef.set(emojiMood); // Guarda el objeto
-        try {
-            System.out.println("FirestoreRepository: EmojiMood guardado en Firestore en: " + result.get().getUpdateTime());
-            return emojiMood;
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("FirestoreRepository: Error al guardar EmojiMood: " + e.getMessage());
-            throw new RuntimeException("Error al guardar EmojiMood en Firestore", e);
-        }
+    /**
+     * Busca un EmojiMood por su ID de documento de Firestore sin bloquear.
+     * @param id El ID del documento.
+     * @return Futuro con un Optional que contiene el EmojiMood si se encuentra.
+     */
+    @Override
+    public CompletableFuture<Optional<EmojiMood>> findByIdAsync(String id) { // El ID es String para Firestore
+        return toCompletableFuture(emojiMoodsCollection.document(id).get(), "findById")
+                .thenApply(document -> {
+                    if (!document.exists()) {
+                        return Optional.empty();
+                    }
+                    // Convierte el documento de Firestore a un objeto EmojiMood
+                    EmojiMood emojiMood = document.toObject(EmojiMood.class);
+                    emojiMood.setId(document.getId()); // Asegura que el ID del objeto coincida con el del documento
+                    return Optional.ofNullable(emojiMood);
+                });
     }
 
     /**
@@ -61,106 +150,571 @@ public class EmojiMoodFirestoreRepository {
      * @param id El ID del documento.
      * @return Optional que contiene el EmojiMood si se encuentra.
      */
-    public Optional<EmojiMood> findById(String id) { // El ID es String para Firestore
-        DocumentReference docRef = emojiMoodsCollection.document(id);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
-        try {
-            DocumentSnapshot document = future.get();
-            if (document.exists()) {
-                // Convierte el documento de Firestore a un objeto EmojiMood
-                EmojiMood emojiMood = document.toObject(EmojiMood.class);
-                emojiMood.setId(document.getId()); // Asegura que el ID del objeto coincida con el del documento
-                return Optional.ofNullable(emojiMood);
-            } else {
-                return Optional.empty();
+    @Override
+    public Optional<EmojiMood> findById(String id) {
+        return await(findByIdAsync(id), "Error al buscar EmojiMood por ID en Firestore");
+    }
+
+    /**
+     * Crea un EmojiMood nuevo con la clave canónica de su emoji como ID, sin bloquear.
+     * La comprobación y la escritura se hacen en una transacción, así que no puede haber
+     * dos EmojiMoods para el mismo emoji.
+     * @param emojiMood El objeto EmojiMood a crear.
+     * @return Futuro con el EmojiMood creado; falla con {@link EmojiMoodAlreadyExistsException}
+     *         si el emoji ya tiene un mapeo.
+     */
+    @Override
+    public CompletableFuture<EmojiMood> createAsync(EmojiMood emojiMood) {
+        DocumentReference docRef = emojiMoodsCollection.document(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+        emojiMood.setId(docRef.getId());
+        return runUniqueWriteAsync("create", emojiMood.getEmoji(), docRef, transaction -> transaction.create(docRef, emojiMood))
+                .thenApply(ignored -> emojiMood);
+    }
+
+    /**
+     * Crea un EmojiMood nuevo. Ver {@link #createAsync(EmojiMood)}.
+     * @param emojiMood El objeto EmojiMood a crear.
+     * @return El EmojiMood creado con su ID.
+     * @throws EmojiMoodAlreadyExistsException si el emoji ya tiene un mapeo.
+     */
+    @Override
+    public EmojiMood create(EmojiMood emojiMood) {
+        return await(createAsync(emojiMood), "Error al guardar EmojiMood en Firestore");
+    }
+
+    /**
+     * Mueve un EmojiMood a la clave canónica de su nuevo emoji (cuando se cambia el emoji de un mapeo).
+     * Crea el documento nuevo y borra el anterior en la misma transacción.
+     * @param oldId El ID actual del documento.
+     * @param emojiMood Los datos actualizados del EmojiMood.
+     * @return Futuro con el EmojiMood con su nuevo ID; falla con {@link EmojiMoodAlreadyExistsException}
+     *         si el nuevo emoji ya tiene un mapeo.
+     */
+    @Override
+    public CompletableFuture<EmojiMood> rekeyAsync(String oldId, EmojiMood emojiMood) {
+        DocumentReference oldRef = emojiMoodsCollection.document(oldId);
+        DocumentReference newRef = emojiMoodsCollection.document(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+        emojiMood.setId(newRef.getId());
+        return runUniqueWriteAsync("rekey", emojiMood.getEmoji(), newRef, transaction -> {
+            transaction.create(newRef, emojiMood);
+            transaction.delete(oldRef);
+        }).thenApply(ignored -> emojiMood);
+    }
+
+    /**
+     * Mueve un EmojiMood a la clave de su nuevo emoji. Ver {@link #rekeyAsync(String, EmojiMood)}.
+     */
+    @Override
+    public EmojiMood rekey(String oldId, EmojiMood emojiMood) {
+        return await(rekeyAsync(oldId, emojiMood), "Error al guardar EmojiMood en Firestore");
+    }
+
+    private CompletableFuture<Void> runUniqueWriteAsync(String method, String emoji, DocumentReference target, Consumer<Transaction> writes) {
+        ApiFuture<Void> transactionFuture = firestore.runTransaction(transaction -> {
+            if (transaction.get(target).get().exists()) {
+                throw new EmojiMoodAlreadyExistsException(emoji);
             }
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("FirestoreRepository: Error al buscar EmojiMood por ID: " + e.getMessage());
-            throw new RuntimeException("Error al buscar EmojiMood por ID en Firestore", e);
-        }
+            writes.accept(transaction);
+            return null;
+        });
+        return toCompletableFuture(transactionFuture, method)
+                .handle((ignored, error) -> {
+                    if (error == null) {
+                        return null;
+                    }
+                    // Firestore envuelve la excepción lanzada dentro de la transacción
+                    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                        if (cause instanceof EmojiMoodAlreadyExistsException alreadyExists) {
+                            throw alreadyExists;
+                        }
+                    }
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                });
+    }
+
+    /**
+     * Busca un EmojiMood por su emoji con una lectura directa por clave, sin bloquear.
+     * @param emoji El emoji a buscar.
+     * @return Futuro con un Optional que contiene el EmojiMood si se encuentra.
+     */
+    @Override
+    public CompletableFuture<Optional<EmojiMood>> findByEmojiAsync(String emoji) {
+        return findByIdAsync(EmojiKeys.canonicalKey(emoji));
     }
 
     /**
-     * Busca un EmojiMood por su campo 'emoji'.
+     * Busca un EmojiMood por su emoji con una lectura directa por clave.
      * @param emoji El emoji a buscar.
      * @return Optional que contiene el EmojiMood si se encuentra.
      */
+    @Override
     public Optional<EmojiMood> findByEmoji(String emoji) {
-        ApiFuture<QuerySnapshot> future = emojiMoodsCollection.whereEqualTo("emoji", emoji).get();
-        try {
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            if (!documents.isEmpty()) {
-                // Debería haber solo uno ya que 'emoji' es único
-                EmojiMood emojiMood = documents.get(0).toObject(EmojiMood.class);
-                emojiMood.setId(documents.get(0).getId());
-                return Optional.ofNullable(emojiMood);
-            } else {
-                return Optional.empty();
+        return await(findByEmojiAsync(emoji), "Error al buscar EmojiMood por emoji en Firestore");
+    }
+
+    /**
+     * Busca varios emojis con una única lectura múltiple (getAll) en lugar de una consulta por emoji, sin bloquear.
+     * @param emojis Los emojis a buscar (se ignoran repetidos y variantes equivalentes).
+     * @return Futuro con los EmojiMoods encontrados, en el orden de la petición.
+     */
+    @Override
+    public CompletableFuture<List<EmojiMood>> findByEmojisAsync(Collection<String> emojis) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String emoji : emojis) {
+            String key = EmojiKeys.canonicalKey(emoji);
+            if (!key.isEmpty()) {
+                keys.add(key);
             }
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("FirestoreRepository: Error al buscar EmojiMood por emoji: " + e.getMessage());
-            throw new RuntimeException("Error al buscar EmojiMood por emoji en Firestore", e);
         }
+        return findAllByIdAsync(new ArrayList<>(keys)).thenApply(found -> new ArrayList<>(found.values()));
+    }
+
+    /**
+     * Busca varios emojis con una única lectura múltiple. Ver {@link #findByEmojisAsync(Collection)}.
+     */
+    @Override
+    public List<EmojiMood> findByEmojis(Collection<String> emojis) {
+        return await(findByEmojisAsync(emojis), "Error al buscar EmojiMoods por emoji en Firestore");
+    }
+
+    /**
+     * Obtiene todos los EmojiMoods de la colección sin bloquear.
+     * @return Futuro con la lista de todos los EmojiMoods.
+     */
+    @Override
+    public CompletableFuture<List<EmojiMood>> findAllAsync() {
+        return toCompletableFuture(emojiMoodsCollection.get(), "findAll")
+                .thenApply(querySnapshot -> {
+                    List<EmojiMood> emojiMoods = new ArrayList<>(querySnapshot.size());
+                    for (QueryDocumentSnapshot document : querySnapshot.getDocuments()) {
+                        EmojiMood emojiMood = document.toObject(EmojiMood.class);
+                        emojiMood.setId(document.getId());
+                        emojiMoods.add(emojiMood);
+                    }
+                    return emojiMoods;
+                });
     }
 
     /**
      * Obtiene todos los EmojiMoods de la colección.
      * @return Lista de todos los EmojiMoods.
      */
+    @Override
     public List<EmojiMood> findAll() {
-        ApiFuture<QuerySnapshot> future = emojiMoodsCollection.get();
-        List<EmojiMood> emojiMoods = new ArrayList<>();
-        try {
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot document : documents) {
-                EmojiMood emojiMood = document.toObject(EmojiMood.class);
-                emojiMood.setId(document.getId());
-                emojiMoods.add(emojiMood);
-            }
-            System.out.println("FirestoreRepository: Encontrados " + emojiMoods.size() + " EmojiMoods.");
-            return emojiMoods;
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("FirestoreRepository: Error al obtener todos los EmojiMoods: " + e.getMessage());
-            throw new RuntimeException("Error al obtener todos los EmojiMoods de Firestore", e);
-        }
+        return await(findAllAsync(), "Error al obtener todos los EmojiMoods de Firestore");
+    }
+
+    /**
+     * Elimina un EmojiMood por su ID de documento de Firestore sin bloquear.
+     * @param id El ID del documento a eliminar.
+     * @return Futuro que se completa cuando el documento se ha eliminado.
+     */
+    @Override
+    public CompletableFuture<Void> deleteByIdAsync(String id) { // El ID es String para Firestore
+        return toCompletableFuture(emojiMoodsCollection.document(id).delete(), "deleteById")
+                .thenAccept(ignored -> { });
     }
 
     /**
      * Elimina un EmojiMood por su ID de documento de Firestore.
      * @param id El ID del documento a eliminar.
      */
-    public void deleteById(String id) { // El ID es String para Firestore
-        ApiFuture<WriteResult> writeResult = emojiMoodsCollection.document(id).delete();
-        try {
-            System.out.println("FirestoreRepository: EmojiMood con ID " + id + " eliminado en: " + writeResult.get().getUpdateTime());
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("FirestoreRepository: Error al eliminar EmojiMood por ID: " + e.getMessage());
-            throw new RuntimeException("Error al eliminar EmojiMood de Firestore", e);
-        }
+    @Override
+    public void deleteById(String id) {
+        await(deleteByIdAsync(id), "Error al eliminar EmojiMood de Firestore");
     }
 
     /**
-     * Cuenta el número de documentos en la colección emojiMoods.
+     * Cuenta el número de documentos en la colección emojiMoods con una agregación de Firestore,
+     * sin descargar los documentos y sin bloquear.
+     * @return Futuro con el número de documentos.
+     */
+    @Override
+    public CompletableFuture<Long> countAsync() {
+        return toCompletableFuture(emojiMoodsCollection.count().get(), "count")
+                .thenApply(aggregateSnapshot -> aggregateSnapshot.getCount());
+    }
+
+    /**
+     * Cuenta el número de documentos en la colección emojiMoods. Ver {@link #countAsync()}.
      * @return El número de documentos.
      */
+    @Override
     public long count() {
-        ApiFuture<QuerySnapshot> future = emojiMoodsCollection.get();
-        try {
-            return future.get().size();
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("FirestoreRepository: Error al contar documentos: " + e.getMessage());
-            throw new RuntimeException("Error al contar documentos en Firestore", e);
-        }
+        return await(countAsync(), "Error al contar documentos en Firestore");
+    }
+
+    /**
+     * Comprueba si la colección emojiMoods tiene algún documento leyendo como máximo uno.
+     * @return true si la colección no está vacía.
+     */
+    @Override
+    public boolean hasAny() {
+        return await(toCompletableFuture(emojiMoodsCollection.limit(1).get(), "hasAny").thenApply(snapshot -> !snapshot.isEmpty()),
+                "Error al comprobar la colección en Firestore");
+    }
+
+    /**
+     * Lee la versión y el checksum de los datos iniciales ya aplicados.
+     * @return Optional con los metadatos, vacío si nunca se han guardado.
+     */
+    @Override
+    public Optional<SeedMetadata> findSeedMetadata() {
+        return await(toCompletableFuture(seedMetadataDocument.get(), "findSeedMetadata")
+                        .thenApply(document -> document.exists()
+                                ? Optional.ofNullable(document.toObject(SeedMetadata.class))
+                                : Optional.<SeedMetadata>empty()),
+                "Error al leer los metadatos de los datos iniciales en Firestore");
+    }
+
+    /**
+     * Guarda la versión y el checksum de los datos iniciales aplicados.
+     * @param seedMetadata Los metadatos a guardar.
+     */
+    @Override
+    public void saveSeedMetadata(SeedMetadata seedMetadata) {
+        await(toCompletableFuture(seedMetadataDocument.set(seedMetadata), "saveSeedMetadata"),
+                "Error al guardar los metadatos de los datos iniciales en Firestore");
     }
 
     /**
-     * Guarda una lista de EmojiMoods en Firestore.
-     * @param emojiMoods La lista de EmojiMoods a guardar.
+     * Crea una lista de EmojiMoods en Firestore usando escrituras por lotes.
+     * Los lotes (de hasta 500 documentos) se envían todos a la vez y se esperan al final,
+     * así que el coste es de una ida y vuelta en lugar de una por documento.
+     * El ID de cada EmojiMood es siempre la clave canónica de su emoji, aunque traiga otro.
+     * Los emojis repetidos en la lista y los que ya tienen mapeo se rechazan uno a uno antes
+     * de escribir, y el resto se crea con {@code create}, que nunca sobrescribe. Cada lote es
+     * atómico: si otro cliente crea uno de sus emojis entre la lectura y la escritura, se marcan
+     * como fallidos todos sus documentos.
+     * @param emojiMoods La lista de EmojiMoods a crear.
+     * @return El resultado de cada documento (los rechazados aparecen al final).
      */
-    public void saveAll(List<EmojiMood> emojiMoods) {
+    @Override
+    public BulkOperationResult createAll(List<EmojiMood> emojiMoods) {
+        long start = System.nanoTime();
+        List<EmojiMood> unique = new ArrayList<>(emojiMoods.size());
+        List<BulkItemResult> rejected = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
         for (EmojiMood emojiMood : emojiMoods) {
-            save(emojiMood); // Reutiliza el método save para cada elemento
+            emojiMood.setId(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+            if (emojiMood.getId().isEmpty()) {
+                rejected.add(new BulkItemResult(emojiMood.getId(), false, "Emoji vacío"));
+            } else if (seenIds.add(emojiMood.getId())) {
+                unique.add(emojiMood);
+            } else {
+                rejected.add(new BulkItemResult(emojiMood.getId(), false, "Emoji duplicado en la petición: " + emojiMood.getEmoji()));
+            }
+        }
+
+        // Un create sobre un documento existente haría fallar su lote entero, así que los
+        // emojis que ya tienen mapeo se descartan antes con una lectura múltiple
+        Set<String> existing = findAllById(new ArrayList<>(seenIds)).keySet();
+        List<EmojiMood> toCreate = new ArrayList<>(unique.size());
+        for (EmojiMood emojiMood : unique) {
+            if (existing.contains(emojiMood.getId())) {
+                rejected.add(new BulkItemResult(emojiMood.getId(), false, "Ya existe un EmojiMood para el emoji " + emojiMood.getEmoji()));
+            } else {
+                toCreate.add(emojiMood);
+            }
+        }
+
+        List<String> ids = new ArrayList<>(toCreate.size());
+        List<ApiFuture<List<WriteResult>>> commits = new ArrayList<>();
+        for (List<EmojiMood> chunk : chunks(toCreate, MAX_BATCH_SIZE)) {
+            WriteBatch batch = firestore.batch();
+            for (EmojiMood emojiMood : chunk) {
+                ids.add(emojiMood.getId());
+                batch.create(emojiMoodsCollection.document(emojiMood.getId()), emojiMood);
+            }
+            commits.add(batch.commit());
+        }
+        BulkOperationResult result = collectBatchResults(ids, commits, MAX_BATCH_SIZE);
+        timers("createAll").record(start, result.getFailed() > 0);
+        result.getItems().addAll(rejected);
+        result.setFailed(result.getFailed() + rejected.size());
+        return result;
+    }
+
+    /**
+     * Migra una colección con IDs aleatorios a IDs por clave canónica del emoji.
+     * Cada documento se copia a su nueva clave y se borra el antiguo en el mismo lote.
+     * Si otro documento ya ocupa esa clave (emoji repetido), el documento antiguo se deja
+     * intacto y se informa como fallido para revisarlo a mano.
+     * @return El resultado de cada documento que había que migrar (por su ID antiguo).
+     */
+    @Override
+    public BulkOperationResult migrateToEmojiKeys() {
+        long start = System.nanoTime();
+        List<EmojiMood> all = findAll();
+        Set<String> takenKeys = new HashSet<>();
+        for (EmojiMood emojiMood : all) {
+            if (emojiMood.getId().equals(EmojiKeys.canonicalKey(emojiMood.getEmoji()))) {
+                takenKeys.add(emojiMood.getId());
+            }
+        }
+
+        List<EmojiMood> toMove = new ArrayList<>();
+        List<BulkItemResult> conflicts = new ArrayList<>();
+        for (EmojiMood emojiMood : all) {
+            String key = EmojiKeys.canonicalKey(emojiMood.getEmoji());
+            if (emojiMood.getId().equals(key)) {
+                continue;
+            }
+            if (key.isEmpty() || !takenKeys.add(key)) {
+                conflicts.add(new BulkItemResult(emojiMood.getId(), false, "Emoji repetido, ya existe el documento " + key));
+            } else {
+                toMove.add(emojiMood);
+            }
+        }
+
+        // Cada migración son dos escrituras (crear y borrar), así que caben la mitad por lote
+        int movesPerBatch = MAX_BATCH_SIZE / 2;
+        List<String> oldIds = new ArrayList<>(toMove.size());
+        List<ApiFuture<List<WriteResult>>> commits = new ArrayList<>();
+        for (List<EmojiMood> chunk : chunks(toMove, movesPerBatch)) {
+            WriteBatch batch = firestore.batch();
+            for (EmojiMood emojiMood : chunk) {
+                String oldId = emojiMood.getId();
+                oldIds.add(oldId);
+                emojiMood.setId(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+                batch.set(emojiMoodsCollection.document(emojiMood.getId()), emojiMood);
+                batch.delete(emojiMoodsCollection.document(oldId));
+            }
+            commits.add(batch.commit());
+        }
+        BulkOperationResult result = collectBatchResults(oldIds, commits, movesPerBatch);
+        timers("migrateToEmojiKeys").record(start, result.getFailed() > 0);
+        result.getItems().addAll(conflicts);
+        result.setFailed(result.getFailed() + conflicts.size());
+        System.out.println("FirestoreRepository: Migrados " + result.getSucceeded() + " EmojiMoods a IDs por emoji ("
+                + result.getFailed() + " sin migrar).");
+        return result;
+    }
+
+    /**
+     * Obtiene varios EmojiMoods por ID con lecturas múltiples (getAll), en paralelo por bloques, sin bloquear.
+     * @param ids Los IDs de los documentos.
+     * @return Futuro con un mapa ID → EmojiMood con los documentos encontrados, en el orden de la petición.
+     */
+    @Override
+    public CompletableFuture<Map<String, EmojiMood>> findAllByIdAsync(List<String> ids) {
+        List<CompletableFuture<List<DocumentSnapshot>>> reads = new ArrayList<>();
+        for (List<String> chunk : chunks(ids, MAX_BATCH_SIZE)) {
+            DocumentReference[] refs = chunk.stream().map(emojiMoodsCollection::document).toArray(DocumentReference[]::new);
+            reads.add(toCompletableFuture(firestore.getAll(refs), "findAllById"));
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<String, EmojiMood> found = new LinkedHashMap<>();
+                    for (CompletableFuture<List<DocumentSnapshot>> read : reads) {
+                        for (DocumentSnapshot document : read.join()) {
+                            if (document.exists()) {
+                                EmojiMood emojiMood = document.toObject(EmojiMood.class);
+                                emojiMood.setId(document.getId());
+                                found.put(document.getId(), emojiMood);
+                            }
+                        }
+                    }
+                    return found;
+                });
+    }
+
+    /**
+     * Obtiene varios EmojiMoods por ID. Ver {@link #findAllByIdAsync(List)}.
+     */
+    @Override
+    public Map<String, EmojiMood> findAllById(List<String> ids) {
+        return await(findAllByIdAsync(ids), "Error al obtener EmojiMoods por ID de Firestore");
+    }
+
+    /**
+     * Elimina varios EmojiMoods por ID usando borrados por lotes enviados en paralelo.
+     * @param ids Los IDs de los documentos a eliminar.
+     * @return El resultado de cada documento.
+     */
+    @Override
+    public BulkOperationResult deleteAllById(List<String> ids) {
+        long start = System.nanoTime();
+        List<ApiFuture<List<WriteResult>>> commits = new ArrayList<>();
+        for (List<String> chunk : chunks(ids, MAX_BATCH_SIZE)) {
+            WriteBatch batch = firestore.batch();
+            for (String id : chunk) {
+                batch.delete(emojiMoodsCollection.document(id));
+            }
+            commits.add(batch.commit());
+        }
+        BulkOperationResult result = collectBatchResults(ids, commits, MAX_BATCH_SIZE);
+        timers("deleteAllById").record(start, result.getFailed() > 0);
+        return result;
+    }
+
+    /**
+     * Espera a todos los lotes y traduce el resultado de cada uno a sus documentos.
+     * Los IDs están en el mismo orden en que se añadieron a los lotes.
+     * Los lotes se envían a la vez, así que comparten un único plazo de {@code timeoutMillis};
+     * los que no terminan en ese plazo se cancelan y sus documentos se marcan como fallidos.
+     */
+    private BulkOperationResult collectBatchResults(List<String> ids, List<ApiFuture<List<WriteResult>>> commits, int batchLimit) {
+        List<BulkItemResult> items = new ArrayList<>(ids.size());
+        int succeeded = 0;
+        int failed = 0;
+        int offset = 0;
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (ApiFuture<List<WriteResult>> commit : commits) {
+            int batchSize = Math.min(batchLimit, ids.size() - offset);
+            String error = null;
+            try {
+                commit.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = "Interrumpido";
+            } catch (TimeoutException e) {
+                commit.cancel(false);
+                error = "Sin respuesta de Firestore en " + timeoutMillis + " ms";
+            } catch (ExecutionException e) {
+                error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            }
+            for (String id : ids.subList(offset, offset + batchSize)) {
+                items.add(new BulkItemResult(id, error == null, error));
+            }
+            if (error == null) {
+                succeeded += batchSize;
+            } else {
+                failed += batchSize;
+            }
+            offset += batchSize;
+        }
+        return new BulkOperationResult(succeeded, failed, items);
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items, int chunkSize) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            chunks.add(items.subList(start, Math.min(start + chunkSize, items.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Registra un listener de Firestore sobre la colección emojiMoods.
+     * Firestore entrega primero el contenido completo de la colección y después
+     * una nueva instantánea completa cada vez que cambia algún documento.
+     * @param onSnapshot Recibe la lista completa de EmojiMoods en cada cambio.
+     * @param onError Recibe el error si el listener deja de funcionar.
+     * @return El registro del listener, para poder eliminarlo.
+     */
+    @Override
+    public EmojiMoodSubscription addSnapshotListener(Consumer<List<EmojiMood>> onSnapshot, Consumer<Exception> onError) {
+        ListenerRegistration registration = emojiMoodsCollection.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                System.err.println("FirestoreRepository: Error en el listener de emojiMoods: " + error.getMessage());
+                onError.accept(error);
+                return;
+            }
+            if (snapshot == null) {
+                return;
+            }
+            List<EmojiMood> emojiMoods = new ArrayList<>(snapshot.size());
+            for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+                EmojiMood emojiMood = document.toObject(EmojiMood.class);
+                emojiMood.setId(document.getId());
+                emojiMoods.add(emojiMood);
+            }
+            onSnapshot.accept(emojiMoods);
+        });
+        return registration::remove;
+    }
+
+    /**
+     * Adapta un ApiFuture de Firestore a CompletableFuture. El callback se ejecuta en el pool
+     * acotado del repositorio (y con él las transformaciones posteriores), no en los hilos del
+     * cliente de Firestore. Si no termina en {@code timeoutMillis}, el futuro falla con
+     * TimeoutException y se cancela la operación de Firestore.
+     * La duración se registra en {@code firestore.operations} con la operación y su resultado.
+     * @param method Nombre de la operación para la etiqueta "method" de la métrica.
+     */
+    private <T> CompletableFuture<T> toCompletableFuture(ApiFuture<T> apiFuture, String method) {
+        OperationTimers timers = timers(method);
+        long start = System.nanoTime();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+        }, callbackExecutor);
+        future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    timers.record(start, error);
+                    if (error instanceof TimeoutException) {
+                        apiFuture.cancel(false);
+                    }
+                });
+        return future;
+    }
+
+    private OperationTimers timers(String method) {
+        OperationTimers timers = operationTimers.get(method);
+        return timers != null ? timers : operationTimers.computeIfAbsent(method, key -> new OperationTimers(meterRegistry, key));
+    }
+
+    /**
+     * Temporizadores de una operación de Firestore por resultado: "success", "error" o "timeout".
+     * Se crean una vez, así que registrar una llamada no reserva memoria.
+     */
+    private static final class OperationTimers {
+        private final Timer success;
+        private final Timer error;
+        private final Timer timeout;
+
+        private OperationTimers(MeterRegistry meterRegistry, String method) {
+            this.success = timer(meterRegistry, method, "success");
+            this.error = timer(meterRegistry, method, "error");
+            this.timeout = timer(meterRegistry, method, "timeout");
+        }
+
+        private static Timer timer(MeterRegistry meterRegistry, String method, String outcome) {
+            return Timer.builder("firestore.operations")
+                    .description("Operaciones de Firestore por método y resultado")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        private void record(long startNanos, Throwable failure) {
+            Timer timer = failure == null ? success : failure instanceof TimeoutException ? timeout : error;
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void record(long startNanos, boolean failed) {
+            (failed ? error : success).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Espera a un futuro desde las variantes bloqueantes. Si el hilo se interrumpe se restaura
+     * el flag de interrupción antes de lanzar la excepción.
+     */
+    private static <T> T await(CompletableFuture<T> future, String errorMessage) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(errorMessage + " (interrumpido)", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof EmojiMoodAlreadyExistsException alreadyExists) {
+                throw alreadyExists;
+            }
+            throw new RuntimeException(errorMessage, cause);
         }
-        System.out.println("FirestoreRepository: Se han guardado " + emojiMoods.size() + " EmojiMoods en Firestore.");
     }
-}
\ No newline at end of file
+}
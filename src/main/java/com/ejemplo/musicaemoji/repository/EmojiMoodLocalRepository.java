@@ -0,0 +1,404 @@
+package com.ejemplo.musicaemoji.repository;
+
+import com.ejemplo.musicaemoji.model.BulkItemResult;
+import com.ejemplo.musicaemoji.model.BulkOperationResult;
+import com.ejemplo.musicaemoji.model.EmojiKeys;
+import com.ejemplo.musicaemoji.model.EmojiMood;
+import com.ejemplo.musicaemoji.model.SeedMetadata;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Almacén local de EmojiMoods sobre un fichero MVStore de H2, para ejecutar sin Firestore ni
+ * credenciales (perfil "local"): desarrollo sin conexión, despliegues en el borde y pruebas.
+ * Cada EmojiMood se guarda como JSON bajo la clave canónica de su emoji. El fichero se abre
+ * mapeado en memoria, así que las lecturas no hacen llamadas al sistema; con
+ * {@code local.store.path} vacío los datos sólo se guardan en memoria.
+ * Las variantes asíncronas se completan en el propio hilo que las invoca. Las escrituras se
+ * serializan para que crear y mover un EmojiMood sean atómicos, y los listeners reciben la
+ * colección completa después de cada escritura, igual que con Firestore.
+ */
+@Repository
+@Profile("local")
+public class EmojiMoodLocalRepository implements EmojiMoodRepository {
+
+    private static final String SEED_METADATA_KEY = "emojiMoodsSeed";
+
+    private final ObjectMapper objectMapper;
+    // Lector y escritor precalculados: evitan buscar el (de)serializador de EmojiMood en cada llamada
+    private final ObjectReader emojiMoodReader;
+    private final ObjectWriter emojiMoodWriter;
+    private final MVStore store;
+    private final MVMap<String, String> emojiMoods; // ID → EmojiMood en JSON
+    private final MVMap<String, String> metadata; // Metadatos de los datos iniciales
+
+    private final Object writeLock = new Object();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public EmojiMoodLocalRepository(ObjectMapper objectMapper,
+                                    @Value("${local.store.path:data/emojimoods.mv.db}") String path,
+                                    @Value("${local.store.memory-mapped:true}") boolean memoryMapped) throws IOException {
+        this.objectMapper = objectMapper;
+        this.emojiMoodReader = objectMapper.readerFor(EmojiMood.class);
+        this.emojiMoodWriter = objectMapper.writerFor(EmojiMood.class);
+        MVStore.Builder builder = new MVStore.Builder();
+        if (path != null && !path.isBlank()) {
+            Path file = Path.of(path).toAbsolutePath();
+            Files.createDirectories(file.getParent());
+            builder.fileName(memoryMapped ? "nioMapped:" + file : file.toString());
+        }
+        this.store = builder.open();
+        this.emojiMoods = store.openMap("emojiMoods");
+        this.metadata = store.openMap("metadata");
+        System.out.println("LocalRepository: Almacén local abierto en " + (path == null || path.isBlank() ? "memoria" : path)
+                + " con " + emojiMoods.size() + " EmojiMoods.");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        store.close();
+    }
+
+    @Override
+    public CompletableFuture<EmojiMood> saveAsync(EmojiMood emojiMood) {
+        return completed(() -> save(emojiMood));
+    }
+
+    @Override
+    public EmojiMood save(EmojiMood emojiMood) {
+        emojiMood.setId(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+        synchronized (writeLock) {
+            emojiMoods.put(emojiMood.getId(), toJson(emojiMood));
+        }
+        notifyListeners();
+        return emojiMood;
+    }
+
+    @Override
+    public CompletableFuture<Optional<EmojiMood>> findByIdAsync(String id) {
+        return completed(() -> findById(id));
+    }
+
+    @Override
+    public Optional<EmojiMood> findById(String id) {
+        return Optional.ofNullable(read(id));
+    }
+
+    @Override
+    public CompletableFuture<EmojiMood> createAsync(EmojiMood emojiMood) {
+        return completed(() -> create(emojiMood));
+    }
+
+    @Override
+    public EmojiMood create(EmojiMood emojiMood) {
+        emojiMood.setId(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+        synchronized (writeLock) {
+            if (emojiMoods.putIfAbsent(emojiMood.getId(), toJson(emojiMood)) != null) {
+                throw new EmojiMoodAlreadyExistsException(emojiMood.getEmoji());
+            }
+        }
+        notifyListeners();
+        return emojiMood;
+    }
+
+    @Override
+    public CompletableFuture<EmojiMood> rekeyAsync(String oldId, EmojiMood emojiMood) {
+        return completed(() -> rekey(oldId, emojiMood));
+    }
+
+    @Override
+    public EmojiMood rekey(String oldId, EmojiMood emojiMood) {
+        emojiMood.setId(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+        synchronized (writeLock) {
+            if (emojiMoods.putIfAbsent(emojiMood.getId(), toJson(emojiMood)) != null) {
+                throw new EmojiMoodAlreadyExistsException(emojiMood.getEmoji());
+            }
+            emojiMoods.remove(oldId);
+        }
+        notifyListeners();
+        return emojiMood;
+    }
+
+    @Override
+    public CompletableFuture<Optional<EmojiMood>> findByEmojiAsync(String emoji) {
+        return completed(() -> findByEmoji(emoji));
+    }
+
+    @Override
+    public Optional<EmojiMood> findByEmoji(String emoji) {
+        return findById(EmojiKeys.canonicalKey(emoji));
+    }
+
+    @Override
+    public CompletableFuture<List<EmojiMood>> findByEmojisAsync(Collection<String> emojis) {
+        return completed(() -> findByEmojis(emojis));
+    }
+
+    @Override
+    public List<EmojiMood> findByEmojis(Collection<String> emojis) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String emoji : emojis) {
+            String key = EmojiKeys.canonicalKey(emoji);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        return new ArrayList<>(findAllById(new ArrayList<>(keys)).values());
+    }
+
+    @Override
+    public CompletableFuture<List<EmojiMood>> findAllAsync() {
+        return completed(this::findAll);
+    }
+
+    @Override
+    public List<EmojiMood> findAll() {
+        List<EmojiMood> all = new ArrayList<>(emojiMoods.size());
+        for (Map.Entry<String, String> entry : emojiMoods.entrySet()) {
+            all.add(fromJson(entry.getKey(), entry.getValue()));
+        }
+        return all;
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteByIdAsync(String id) {
+        return completed(() -> {
+            deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteById(String id) {
+        String removed;
+        synchronized (writeLock) {
+            removed = emojiMoods.remove(id);
+        }
+        if (removed != null) {
+            notifyListeners();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> countAsync() {
+        return completed(this::count);
+    }
+
+    @Override
+    public long count() {
+        return emojiMoods.sizeAsLong();
+    }
+
+    @Override
+    public boolean hasAny() {
+        return !emojiMoods.isEmpty();
+    }
+
+    @Override
+    public Optional<SeedMetadata> findSeedMetadata() {
+        String json = metadata.get(SEED_METADATA_KEY);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, SeedMetadata.class));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Metadatos de los datos iniciales ilegibles en el almacén local", e);
+        }
+    }
+
+    @Override
+    public void saveSeedMetadata(SeedMetadata seedMetadata) {
+        try {
+            metadata.put(SEED_METADATA_KEY, objectMapper.writeValueAsString(seedMetadata));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        store.commit();
+    }
+
+    /**
+     * Crea la lista completa bajo el bloqueo de escritura y la persiste con un único commit.
+     * Ver {@link EmojiMoodRepository#createAll(List)}.
+     */
+    @Override
+    public BulkOperationResult createAll(List<EmojiMood> emojiMoodsToCreate) {
+        List<BulkItemResult> items = new ArrayList<>(emojiMoodsToCreate.size());
+        List<BulkItemResult> rejected = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+        synchronized (writeLock) {
+            for (EmojiMood emojiMood : emojiMoodsToCreate) {
+                emojiMood.setId(EmojiKeys.canonicalKey(emojiMood.getEmoji()));
+                if (emojiMood.getId().isEmpty()) {
+                    rejected.add(new BulkItemResult(emojiMood.getId(), false, "Emoji vacío"));
+                } else if (!seenIds.add(emojiMood.getId())) {
+                    rejected.add(new BulkItemResult(emojiMood.getId(), false, "Emoji duplicado en la petición: " + emojiMood.getEmoji()));
+                } else if (emojiMoods.putIfAbsent(emojiMood.getId(), toJson(emojiMood)) != null) {
+                    rejected.add(new BulkItemResult(emojiMood.getId(), false, "Ya existe un EmojiMood para el emoji " + emojiMood.getEmoji()));
+                } else {
+                    items.add(new BulkItemResult(emojiMood.getId(), true, null));
+                }
+            }
+            store.commit();
+        }
+        int succeeded = items.size();
+        items.addAll(rejected);
+        if (succeeded > 0) {
+            notifyListeners();
+        }
+        return new BulkOperationResult(succeeded, rejected.size(), items);
+    }
+
+    @Override
+    public BulkOperationResult migrateToEmojiKeys() {
+        List<BulkItemResult> items = new ArrayList<>();
+        int succeeded = 0;
+        int failed = 0;
+        synchronized (writeLock) {
+            for (EmojiMood emojiMood : findAll()) {
+                String oldId = emojiMood.getId();
+                String key = EmojiKeys.canonicalKey(emojiMood.getEmoji());
+                if (oldId.equals(key)) {
+                    continue;
+                }
+                emojiMood.setId(key);
+                if (key.isEmpty() || emojiMoods.putIfAbsent(key, toJson(emojiMood)) != null) {
+                    items.add(new BulkItemResult(oldId, false, "Emoji repetido, ya existe el documento " + key));
+                    failed++;
+                } else {
+                    emojiMoods.remove(oldId);
+                    items.add(new BulkItemResult(oldId, true, null));
+                    succeeded++;
+                }
+            }
+            store.commit();
+        }
+        if (!items.isEmpty()) {
+            notifyListeners();
+        }
+        return new BulkOperationResult(succeeded, failed, items);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, EmojiMood>> findAllByIdAsync(List<String> ids) {
+        return completed(() -> findAllById(ids));
+    }
+
+    @Override
+    public Map<String, EmojiMood> findAllById(List<String> ids) {
+        Map<String, EmojiMood> found = new LinkedHashMap<>();
+        for (String id : ids) {
+            EmojiMood emojiMood = read(id);
+            if (emojiMood != null) {
+                found.put(id, emojiMood);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public BulkOperationResult deleteAllById(List<String> ids) {
+        List<BulkItemResult> items = new ArrayList<>(ids.size());
+        synchronized (writeLock) {
+            for (String id : ids) {
+                emojiMoods.remove(id);
+                items.add(new BulkItemResult(id, true, null));
+            }
+            store.commit();
+        }
+        notifyListeners();
+        return new BulkOperationResult(ids.size(), 0, items);
+    }
+
+    @Override
+    public EmojiMoodSubscription addSnapshotListener(Consumer<List<EmojiMood>> onSnapshot, Consumer<Exception> onError) {
+        Listener listener = new Listener(onSnapshot, onError);
+        listeners.add(listener);
+        listener.deliver(findAll());
+        return () -> listeners.remove(listener);
+    }
+
+    private void notifyListeners() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        List<EmojiMood> snapshot = findAll();
+        for (Listener listener : listeners) {
+            listener.deliver(snapshot);
+        }
+    }
+
+    private EmojiMood read(String id) {
+        String json = id == null ? null : emojiMoods.get(id);
+        return json == null ? null : fromJson(id, json);
+    }
+
+    private String toJson(EmojiMood emojiMood) {
+        try {
+            return emojiMoodWriter.writeValueAsString(emojiMood);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private EmojiMood fromJson(String id, String json) {
+        try {
+            EmojiMood emojiMood = emojiMoodReader.readValue(json);
+            emojiMood.setId(id); // El ID es siempre la clave del mapa
+            return emojiMood;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("EmojiMood " + id + " ilegible en el almacén local", e);
+        }
+    }
+
+    /**
+     * Ejecuta la operación en el hilo actual y devuelve el resultado como futuro; si falla,
+     * el futuro falla con la misma excepción, como en el repositorio de Firestore.
+     */
+    private static <T> CompletableFuture<T> completed(Supplier<T> operation) {
+        try {
+            return CompletableFuture.completedFuture(operation.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private record Listener(Consumer<List<EmojiMood>> onSnapshot, Consumer<Exception> onError) {
+        void deliver(List<EmojiMood> snapshot) {
+            try {
+                onSnapshot.accept(List.copyOf(snapshot));
+            } catch (RuntimeException e) {
+                System.err.println("LocalRepository: Error en un listener de emojiMoods: " + e.getMessage());
+                onError.accept(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ejemplo.musicaemoji.repository;
+
+import com.ejemplo.musicaemoji.model.BulkOperationResult;
+import com.ejemplo.musicaemoji.model.EmojiMood;
+import com.ejemplo.musicaemoji.model.SeedMetadata;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Almacenamiento de los mapeos emoji → estado de ánimo.
+ * El ID de cada EmojiMood es la clave canónica de su emoji (ver {@link com.ejemplo.musicaemoji.model.EmojiKeys}).
+ * Hay dos implementaciones, elegidas por perfil de Spring:
+ * <ul>
+ *   <li>{@link EmojiMoodFirestoreRepository}: Firestore (por defecto).</li>
+ *   <li>{@link EmojiMoodLocalRepository}: fichero local MVStore de H2 (perfil "local"), sin red ni credenciales.</li>
+ * </ul>
+ * Las operaciones individuales tienen una variante asíncrona y otra bloqueante.
+ */
+public interface EmojiMoodRepository {
+
+    /**
+     * Guarda un EmojiMood sin bloquear con la clave canónica de su emoji como ID, ignorando el
+     * que traiga; si ya existe un EmojiMood con esa clave, se sustituye.
+     * @param emojiMood El objeto EmojiMood a guardar.
+     * @return Futuro con el EmojiMood guardado con su ID.
+     */
+    CompletableFuture<EmojiMood> saveAsync(EmojiMood emojiMood);
+
+    EmojiMood save(EmojiMood emojiMood);
+
+    /**
+     * Busca un EmojiMood por su ID sin bloquear.
+     * @param id El ID del EmojiMood.
+     * @return Futuro con un Optional que contiene el EmojiMood si se encuentra.
+     */
+    CompletableFuture<Optional<EmojiMood>> findByIdAsync(String id);
+
+    Optional<EmojiMood> findById(String id);
+
+    /**
+     * Crea un EmojiMood nuevo con la clave canónica de su emoji como ID, sin bloquear.
+     * @param emojiMood El objeto EmojiMood a crear.
+     * @return Futuro con el EmojiMood creado; falla con {@link EmojiMoodAlreadyExistsException}
+     *         si el emoji ya tiene un mapeo.
+     */
+    CompletableFuture<EmojiMood> createAsync(EmojiMood emojiMood);
+
+    EmojiMood create(EmojiMood emojiMood);
+
+    /**
+     * Mueve un EmojiMood a la clave canónica de su nuevo emoji, de forma atómica.
+     * @param oldId El ID actual del EmojiMood.
+     * @param emojiMood Los datos actualizados del EmojiMood.
+     * @return Futuro con el EmojiMood con su nuevo ID; falla con {@link EmojiMoodAlreadyExistsException}
+     *         si el nuevo emoji ya tiene un mapeo.
+     */
+    CompletableFuture<EmojiMood> rekeyAsync(String oldId, EmojiMood emojiMood);
+
+    EmojiMood rekey(String oldId, EmojiMood emojiMood);
+
+    /**
+     * Busca un EmojiMood por su emoji con una lectura directa por clave, sin bloquear.
+     * @param emoji El emoji a buscar.
+     * @return Futuro con un Optional que contiene el EmojiMood si se encuentra.
+     */
+    CompletableFuture<Optional<EmojiMood>> findByEmojiAsync(String emoji);
+
+    Optional<EmojiMood> findByEmoji(String emoji);
+
+    /**
+     * Busca varios emojis a la vez, sin bloquear.
+     * @param emojis Los emojis a buscar (se ignoran repetidos y variantes equivalentes).
+     * @return Futuro con los EmojiMoods encontrados, en el orden de la petición.
+     */
+    CompletableFuture<List<EmojiMood>> findByEmojisAsync(Collection<String> emojis);
+
+    List<EmojiMood> findByEmojis(Collection<String> emojis);
+
+    /**
+     * Obtiene todos los EmojiMoods sin bloquear.
+     * @return Futuro con la lista de todos los EmojiMoods.
+     */
+    CompletableFuture<List<EmojiMood>> findAllAsync();
+
+    List<EmojiMood> findAll();
+
+    /**
+     * Elimina un EmojiMood por su ID sin bloquear. No falla si no existe.
+     * @param id El ID del EmojiMood a eliminar.
+     * @return Futuro que se completa cuando el EmojiMood se ha eliminado.
+     */
+    CompletableFuture<Void> deleteByIdAsync(String id);
+
+    void deleteById(String id);
+
+    /**
+     * Cuenta los EmojiMoods guardados sin bloquear.
+     * @return Futuro con el número de EmojiMoods.
+     */
+    CompletableFuture<Long> countAsync();
+
+    long count();
+
+    /**
+     * Comprueba si hay algún EmojiMood guardado.
+     * @return true si el almacén no está vacío.
+     */
+    boolean hasAny();
+
+    /**
+     * Lee la versión y el checksum de los datos iniciales ya aplicados.
+     * @return Optional con los metadatos, vacío si nunca se han guardado.
+     */
+    Optional<SeedMetadata> findSeedMetadata();
+
+    void saveSeedMetadata(SeedMetadata seedMetadata);
+
+    /**
+     * Crea una lista de EmojiMoods con la clave canónica de cada emoji como ID, ignorando el
+     * que traigan. Nunca sobrescribe: los emojis que ya tienen mapeo se marcan como fallidos, y
+     * si dos elementos de la lista tienen el mismo emoji sólo se crea el primero.
+     * @param emojiMoods La lista de EmojiMoods a crear.
+     * @return El resultado de cada EmojiMood (los rechazados aparecen al final).
+     */
+    BulkOperationResult createAll(List<EmojiMood> emojiMoods);
+
+    /**
+     * Pasa los EmojiMoods guardados con otro ID a la clave canónica de su emoji. Si la clave ya
+     * está ocupada por otro EmojiMood, el antiguo se deja intacto y se informa como fallido.
+     * @return El resultado de cada EmojiMood que había que migrar (por su ID antiguo).
+     */
+    BulkOperationResult migrateToEmojiKeys();
+
+    /**
+     * Obtiene varios EmojiMoods por ID sin bloquear.
+     * @param ids Los IDs de los EmojiMoods.
+     * @return Futuro con un mapa ID → EmojiMood con los encontrados, en el orden de la petición.
+     */
+    CompletableFuture<Map<String, EmojiMood>> findAllByIdAsync(List<String> ids);
+
+    Map<String, EmojiMood> findAllById(List<String> ids);
+
+    /**
+     * Elimina varios EmojiMoods por ID.
+     * @param ids Los IDs de los EmojiMoods a eliminar.
+     * @return El resultado de cada EmojiMood.
+     */
+    BulkOperationResult deleteAllById(List<String> ids);
+
+    /**
+     * Registra un listener sobre los EmojiMoods. Recibe primero el contenido completo y después
+     * una nueva lista completa cada vez que cambia alguno.
+     * @param onSnapshot Recibe la lista completa de EmojiMoods en cada cambio.
+     * @param onError Recibe el error si el listener deja de funcionar.
+     * @return El registro del listener, para poder eliminarlo.
+     */
+    EmojiMoodSubscription addSnapshotListener(Consumer<List<EmojiMood>> onSnapshot, Consumer<Exception> onError);
+
+    // --- Variantes reactivas: no bloquean el hilo que las invoca ---
+
+    /**
+     * Obtiene todos los EmojiMoods como Mono.
+     * @return Mono que emite la lista de todos los EmojiMoods.
+     */
+    default Mono<List<EmojiMood>> findAllReactive() {
+        return Mono.fromFuture(this::findAllAsync);
+    }
+
+    /**
+     * Busca un EmojiMood por su emoji como Mono, con una lectura directa por clave.
+     * @param emoji El emoji a buscar.
+     * @return Mono que emite el EmojiMood, o vacío si no existe.
+     */
+    default Mono<EmojiMood> findByEmojiReactive(String emoji) {
+        return Mono.fromFuture(() -> findByEmojiAsync(emoji)).flatMap(Mono::justOrEmpty);
+    }
+}
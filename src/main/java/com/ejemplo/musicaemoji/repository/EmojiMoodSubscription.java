@@ -0,0 +1,13 @@
+package com.ejemplo.musicaemoji.repository;
+
+/**
+ * Registro de un listener de EmojiMoods, independiente del almacén (Firestore o local).
+ */
+@FunctionalInterface
+public interface EmojiMoodSubscription {
+
+    /**
+     * Deja de recibir cambios. Llamarlo más de una vez no tiene efecto.
+     */
+    void remove();
+}
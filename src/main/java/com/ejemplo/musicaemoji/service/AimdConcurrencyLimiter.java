@@ -0,0 +1,86 @@
+package com.ejemplo.musicaemoji.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite adaptativo de llamadas simultáneas (AIMD): cada llamada correcta y rápida sube el
+ * límite en 1/límite (aproximadamente +1 por ronda) y cada fallo, timeout o llamada lenta lo
+ * multiplica por {@code backoff}. Las llamadas que superan el límite se rechazan sin esperar.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoff;
+    private final long slowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    /**
+     * @param initialLimit Límite inicial.
+     * @param minLimit Límite mínimo.
+     * @param maxLimit Límite máximo.
+     * @param backoff Factor multiplicativo (0..1) al detectar congestión.
+     * @param slowNanos Latencia a partir de la cual una llamada correcta se trata como congestión.
+     */
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoff, long slowNanos) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoff = backoff;
+        this.slowNanos = slowNanos;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el permiso de una llamada que terminó con respuesta.
+     * @param latencyNanos Latencia de la llamada.
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > slowNanos) {
+            decrease();
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Libera el permiso de una llamada que falló o agotó su timeout.
+     */
+    public synchronized void onDropped() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    /**
+     * Libera el permiso de una llamada cancelada sin resultado, sin ajustar el límite.
+     */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoff);
+    }
+}
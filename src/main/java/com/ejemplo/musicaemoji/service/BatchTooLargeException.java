@@ -0,0 +1,15 @@
+package com.ejemplo.musicaemoji.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Se lanza cuando un lote de recomendaciones supera el número máximo de entradas.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int size, int maxSize) {
+        super("El lote tiene " + size + " entradas y el máximo es " + maxSize);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.WarmerStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Tarea en segundo plano que recalienta las canciones de los géneros del índice de emojis
+ * antes de que caduquen, para que la ruta de recomendación lea siempre de memoria. Sólo se
+ * calientan los géneros que el modo de obtención activo sirve por género.
+ * Cada pasada sólo recarga los géneros a los que les tocaría recargarse antes de la siguiente,
+ * así que el intervalo entre pasadas puede ser menor que el de recarga de los pools.
+ * Recorre primero los géneros más pedidos y limita el ritmo de llamadas a Spotify.
+ */
+@Component
+public class CatalogWarmer {
+
+    private static final int SONGS_PER_GENRE = 10;
+
+    private final EmojiMoodIndex emojiMoodIndex;
+    private final SpotifyService spotifyService;
+
+    // Géneros recalentados por segundo como máximo
+    @Value("${warmer.genres-per-second:2}")
+    private double genresPerSecond;
+
+    @Value("${warmer.interval-seconds:3600}")
+    private long intervalSeconds;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger genresTotal = new AtomicInteger();
+    private final AtomicInteger genresWarmed = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalFailures = new AtomicLong();
+    private volatile Instant lastRunStartedAt;
+    private volatile Instant lastCompletedRunStartedAt;
+    private volatile Instant lastRunFinishedAt;
+
+    @Autowired
+    public CatalogWarmer(EmojiMoodIndex emojiMoodIndex, SpotifyService spotifyService) {
+        this.emojiMoodIndex = emojiMoodIndex;
+        this.spotifyService = spotifyService;
+    }
+
+    @PostConstruct
+    public void validate() {
+        // Con 0 o un valor negativo el intervalo entre géneros sería infinito y la pasada no terminaría nunca
+        if (!(genresPerSecond > 0)) {
+            throw new IllegalStateException("warmer.genres-per-second debe ser mayor que 0: " + genresPerSecond);
+        }
+    }
+
+    /**
+     * Lanza una pasada periódica. Si la anterior sigue en curso no se solapa.
+     */
+    @Scheduled(fixedDelayString = "${warmer.interval-seconds:3600}",
+               initialDelayString = "${warmer.initial-delay-seconds:30}",
+               timeUnit = TimeUnit.SECONDS)
+    public void scheduledRun() {
+        start();
+    }
+
+    /**
+     * Inicia una pasada sin bloquear al llamante.
+     * @return true si se inició; false si ya había una en curso.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Instant startedAt = Instant.now();
+        lastRunStartedAt = startedAt;
+        genresTotal.set(0);
+        genresWarmed.set(0);
+        failures.set(0);
+        AtomicInteger upToDate = new AtomicInteger();
+
+        Duration interval = Duration.ofMillis(Math.max(1, (long) (1000 / genresPerSecond)));
+        // En modo "seeds" sólo se calientan los géneros sin semilla, que son los que se sirven por género
+        // La preparación va dentro del Flux para que, si falla, doFinally libere igualmente la pasada
+        Mono.defer(() -> spotifyService.genresServedPerGenre(prioritizedGenres()))
+                .flatMapMany(servedGenres -> {
+                    // La siguiente pasada empieza un intervalo después de terminar esta, que como mucho
+                    // recorre todos los géneros al ritmo configurado
+                    Duration margin = Duration.ofSeconds(intervalSeconds)
+                            .plusMillis((long) (servedGenres.size() * 1000 / genresPerSecond));
+                    List<String> genres = servedGenres.stream()
+                            .filter(genre -> spotifyService.needsWarming(genre, SONGS_PER_GENRE, margin))
+                            .collect(Collectors.toList());
+                    genresTotal.set(genres.size());
+                    upToDate.set(servedGenres.size() - genres.size());
+                    return Flux.fromIterable(genres);
+                })
+                .delayElements(interval) // Limita el ritmo para no agotar la cuota de Spotify
+                .concatMap(genre -> Mono.fromFuture(() -> spotifyService.warmGenre(genre, SONGS_PER_GENRE))
+                        // Un error o una recarga vacía cuentan como fallo aunque se conserve el resultado anterior
+                        .onErrorReturn(0)
+                        .doOnNext(songs -> {
+                            genresWarmed.incrementAndGet();
+                            if (songs == 0) {
+                                failures.incrementAndGet();
+                                totalFailures.incrementAndGet();
+                            }
+                        }))
+                .doFinally(signal -> {
+                    totalRuns.incrementAndGet();
+                    lastCompletedRunStartedAt = startedAt;
+                    lastRunFinishedAt = Instant.now();
+                    running.set(false);
+                    System.out.println("CatalogWarmer: Pasada terminada: " + genresWarmed.get() + "/" + genresTotal.get() + " géneros, " + failures.get() + " fallos, " + upToDate.get() + " al día.");
+                })
+                .subscribe(null, error -> System.err.println("CatalogWarmer: Pasada interrumpida: " + error.getMessage()));
+        return true;
+    }
+
+    public WarmerStatus getStatus() {
+        Instant completedStart = lastCompletedRunStartedAt;
+        return new WarmerStatus(running.get(), genresTotal.get(), genresWarmed.get(), failures.get(),
+                totalRuns.get(), totalFailures.get(), lastRunStartedAt, lastRunFinishedAt,
+                completedStart == null ? -1 : Duration.between(completedStart, Instant.now()).toSeconds());
+    }
+
+    /**
+     * Los géneros del índice ordenados por número de peticiones observadas, de mayor a menor.
+     */
+    private List<String> prioritizedGenres() {
+        Map<String, Long> requestCounts = spotifyService.getGenreRequestCounts();
+        return emojiMoodIndex.genres().stream()
+                .sorted(Comparator.comparingLong((String genre) -> requestCounts.getOrDefault(genre, 0L)).reversed())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,135 @@
+package com.ejemplo.musicaemoji.service;
+
+/**
+ * Cortocircuito por tasa de fallos sobre una ventana de las últimas llamadas.
+ * CLOSED: las llamadas pasan. OPEN: se rechazan sin llamar durante {@code openNanos}.
+ * HALF_OPEN: se deja pasar una única llamada de prueba; si va bien se cierra y si falla se vuelve a abrir.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] window; // true = fallo
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    private int index;
+    private int count;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private long openedCount;
+    private long shortCircuited;
+
+    /**
+     * @param windowSize Llamadas que se tienen en cuenta para calcular la tasa de fallos.
+     * @param minCalls Llamadas mínimas en la ventana antes de poder abrir el circuito.
+     * @param failureRateThreshold Tasa de fallos (0..1) a partir de la cual se abre.
+     * @param openNanos Tiempo que permanece abierto antes de dejar pasar una llamada de prueba.
+     */
+    public CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, long openNanos) {
+        this.window = new boolean[windowSize];
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Indica si la llamada puede hacerse. Cada permiso concedido debe cerrarse con
+     * {@link #onSuccess()}, {@link #onFailure()} o {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openNanos) {
+                shortCircuited++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                shortCircuited++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && count >= minCalls && (double) failures / count >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * La llamada se canceló sin resultado: no cuenta, pero libera la llamada de prueba.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return count == 0 ? 0 : (double) failures / count;
+    }
+
+    public synchronized long getOpenedCount() {
+        return openedCount;
+    }
+
+    public synchronized long getShortCircuited() {
+        return shortCircuited;
+    }
+
+    private void record(boolean failure) {
+        if (count == window.length) {
+            if (window[index]) {
+                failures--;
+            }
+        } else {
+            count++;
+        }
+        window[index] = failure;
+        if (failure) {
+            failures++;
+        }
+        index = (index + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        openedCount++;
+        System.err.println("CircuitBreaker: Circuito abierto, las llamadas usarán el fallback durante " + openNanos / 1_000_000 + " ms.");
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        index = 0;
+        count = 0;
+        failures = 0;
+        System.out.println("CircuitBreaker: Circuito cerrado de nuevo.");
+    }
+}
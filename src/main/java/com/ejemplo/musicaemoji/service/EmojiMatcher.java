@@ -0,0 +1,241 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.EmojiKeys;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Buscador de emojis precompilado: un trie sobre code points que recorre la entrada una
+ * sola vez y busca cada cluster de grafemas completo.
+ * Trabaja sobre clusters de grafemas completos, de modo que las secuencias ZWJ (🧘‍♀️, 🏴‍☠️),
+ * las banderas de indicadores regionales (🇯🇲), los modificadores de tono de piel y el
+ * selector de variación VS16 (🌧️, ⚙️) se tratan como un único emoji.
+ * Los selectores de variación y los tonos de piel se ignoran al comparar, así que "🌧" y "🌧️"
+ * o "👍🏽" y "👍" encuentran el mismo mapeo.
+ * Es inmutable y seguro para usar desde varios hilos. El recorrido no reserva memoria por carácter.
+ * @param <T> Tipo del valor asociado a cada emoji.
+ */
+public final class EmojiMatcher<T> {
+
+    private static final int ZWJ = 0x200D;
+    private static final int KEYCAP = 0x20E3;
+
+    private final Node<T> root;
+    private final int size;
+
+    private EmojiMatcher(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Construye el buscador a partir de un mapa emoji → valor.
+     * Si dos emojis son equivalentes (por ejemplo, con y sin VS16) se queda el primero.
+     * @param entries Los emojis y sus valores.
+     * @return Un buscador inmutable.
+     */
+    public static <T> EmojiMatcher<T> build(Map<String, T> entries) {
+        MutableNode<T> mutableRoot = new MutableNode<>();
+        int size = 0;
+        for (Map.Entry<String, T> entry : entries.entrySet()) {
+            String emoji = entry.getKey();
+            if (emoji == null || entry.getValue() == null) {
+                continue;
+            }
+            MutableNode<T> node = mutableRoot;
+            for (int i = 0; i < emoji.length(); ) {
+                int codePoint = emoji.codePointAt(i);
+                i += Character.charCount(codePoint);
+                if (!isIgnorable(codePoint)) {
+                    node = node.children.computeIfAbsent(codePoint, cp -> new MutableNode<>());
+                }
+            }
+            if (node != mutableRoot && node.value == null) {
+                node.value = entry.getValue();
+                size++;
+            }
+        }
+        return new EmojiMatcher<>(mutableRoot.freeze(), size);
+    }
+
+    public static <T> EmojiMatcher<T> empty() {
+        return build(Map.of());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Recorre la entrada y entrega el valor de cada emoji reconocido, en el orden en que aparecen.
+     * Sólo se acepta un emoji que ocupe el cluster de grafemas completo (salvo selectores de
+     * variación y tonos de piel): si sólo un prefijo del cluster tiene mapeo, como 🏳️ en 🏳️‍🌈,
+     * el cluster cuenta como sin mapeo, igual que en la búsqueda por clave canónica.
+     * @param input El texto introducido por el usuario.
+     * @param consumer Recibe el valor de cada coincidencia.
+     * @return Número de clusters sin mapeo, sin contar caracteres ASCII sueltos ni espacios
+     *         (separadores entre emojis).
+     */
+    public int forEachMatch(CharSequence input, Consumer<? super T> consumer) {
+        int length = input.length();
+        int unmatched = 0;
+        int i = 0;
+        while (i < length) {
+            int clusterEnd = skipCluster(input, i);
+            Node<T> node = root;
+            int j = i;
+            while (j < clusterEnd && node != null) {
+                int codePoint = Character.codePointAt(input, j);
+                j += Character.charCount(codePoint);
+                if (!isIgnorable(codePoint)) {
+                    node = node.child(codePoint);
+                }
+            }
+            if (node != null && node.value != null) {
+                consumer.accept(node.value);
+            } else if (clusterEnd - i > 1 || !isSeparator(input.charAt(i))) {
+                unmatched++;
+            }
+            i = clusterEnd;
+        }
+        return unmatched;
+    }
+
+    /**
+     * Divide la entrada en clusters de grafemas (un emoji completo por elemento).
+     * A diferencia de {@link #forEachMatch}, reserva un String por cluster.
+     * @param input El texto introducido por el usuario.
+     * @return Los clusters en orden de aparición.
+     */
+    public static List<String> clusters(CharSequence input) {
+        List<String> clusters = new ArrayList<>();
+        int i = 0;
+        while (i < input.length()) {
+            int end = skipCluster(input, i);
+            clusters.add(input.subSequence(i, end).toString());
+            i = end;
+        }
+        return clusters;
+    }
+
+    /**
+     * Indica si un cluster de {@link #clusters} cuenta como emoji: no es un carácter ASCII suelto ni un espacio.
+     */
+    static boolean isEmojiCluster(String cluster) {
+        return cluster.length() > 1 || !isSeparator(cluster.charAt(0));
+    }
+
+    /**
+     * Avanza un cluster de grafemas completo empezando en {@code start}.
+     */
+    static int skipCluster(CharSequence input, int start) {
+        int codePoint = Character.codePointAt(input, start);
+        int pos = start + Character.charCount(codePoint);
+        if (isRegionalIndicator(codePoint) && pos < input.length()) {
+            int next = Character.codePointAt(input, pos);
+            if (isRegionalIndicator(next)) {
+                pos += Character.charCount(next);
+            }
+        }
+        return skipClusterTail(input, pos);
+    }
+
+    /**
+     * Consume los extensores que quedan del cluster actual: selectores de variación, tonos de
+     * piel, keycaps, etiquetas de subdivisión y los emojis unidos mediante ZWJ.
+     */
+    private static int skipClusterTail(CharSequence input, int pos) {
+        int length = input.length();
+        while (pos < length) {
+            int codePoint = Character.codePointAt(input, pos);
+            if (codePoint == ZWJ) {
+                pos += Character.charCount(codePoint);
+                if (pos < length) {
+                    pos += Character.charCount(Character.codePointAt(input, pos));
+                }
+            } else if (isExtender(codePoint)) {
+                pos += Character.charCount(codePoint);
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean isIgnorable(int codePoint) {
+        return EmojiKeys.isIgnorable(codePoint);
+    }
+
+    private static boolean isExtender(int codePoint) {
+        return isIgnorable(codePoint)
+                || codePoint == KEYCAP
+                || (codePoint >= 0xE0020 && codePoint <= 0xE007F) // Etiquetas (banderas de subdivisiones)
+                || Character.getType(codePoint) == Character.NON_SPACING_MARK;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c <= 0x7F || Character.isSpaceChar(c);
+    }
+
+    private static boolean isRegionalIndicator(int codePoint) {
+        return codePoint >= 0x1F1E6 && codePoint <= 0x1F1FF;
+    }
+
+    /**
+     * Nodo inmutable del trie. Los hijos se guardan en arrays ordenados por code point
+     * y se buscan con búsqueda binaria para no tener que boxear los enteros.
+     */
+    private static final class Node<T> {
+        private final int[] codePoints;
+        private final Node<T>[] children;
+        private final T value;
+
+        private Node(int[] codePoints, Node<T>[] children, T value) {
+            this.codePoints = codePoints;
+            this.children = children;
+            this.value = value;
+        }
+
+        private Node<T> child(int codePoint) {
+            int low = 0;
+            int high = codePoints.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int current = codePoints[mid];
+                if (current < codePoint) {
+                    low = mid + 1;
+                } else if (current > codePoint) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class MutableNode<T> {
+        private final TreeMap<Integer, MutableNode<T>> children = new TreeMap<>();
+        private T value;
+
+        @SuppressWarnings("unchecked")
+        private Node<T> freeze() {
+            int[] codePoints = new int[children.size()];
+            List<Node<T>> frozenChildren = new ArrayList<>(children.size());
+            int index = 0;
+            for (Map.Entry<Integer, MutableNode<T>> entry : children.entrySet()) {
+                codePoints[index++] = entry.getKey();
+                frozenChildren.add(entry.getValue().freeze());
+            }
+            return new Node<>(codePoints, frozenChildren.toArray(new Node[0]), value);
+        }
+    }
+}
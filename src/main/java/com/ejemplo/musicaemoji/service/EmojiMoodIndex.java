@@ -0,0 +1,172 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.EmojiIndexStatus;
+import com.ejemplo.musicaemoji.model.EmojiMood;
+import com.ejemplo.musicaemoji.repository.EmojiMoodRepository;
+import com.ejemplo.musicaemoji.repository.EmojiMoodSubscription;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Índice en memoria emoji → género construido a partir de la colección emojiMoods.
+ * El índice es inmutable y se sustituye de forma atómica en cada recarga, de modo que
+ * la ruta de recomendación nunca hace consultas al repositorio.
+ * Se mantiene actualizado con el snapshot listener del repositorio y, si el listener no
+ * está disponible, con un sondeo periódico.
+ */
+@Service
+public class EmojiMoodIndex {
+
+    private final EmojiMoodRepository emojiMoodRepository;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+    private final AtomicLong versionCounter = new AtomicLong();
+
+    private volatile EmojiMoodSubscription listenerRegistration;
+    private volatile boolean listenerActive;
+
+    @Autowired
+    public EmojiMoodIndex(EmojiMoodRepository emojiMoodRepository) {
+        this.emojiMoodRepository = emojiMoodRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            // El listener entrega primero la colección completa, lo que sirve como carga inicial
+            listenerRegistration = emojiMoodRepository.addSnapshotListener(
+                    emojiMoods -> replace(emojiMoods, "listener"),
+                    error -> listenerActive = false);
+            listenerActive = true;
+        } catch (RuntimeException e) {
+            System.err.println("EmojiMoodIndex: No se pudo registrar el listener, se usará sondeo: " + e.getMessage());
+            listenerActive = false;
+            refresh();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        EmojiMoodSubscription registration = listenerRegistration;
+        if (registration != null) {
+            registration.remove();
+        }
+    }
+
+    /**
+     * Sondeo de respaldo: sólo recarga el índice cuando el listener no está activo.
+     */
+    @Scheduled(fixedDelayString = "${emoji.index.poll-interval-ms:60000}",
+               initialDelayString = "${emoji.index.poll-interval-ms:60000}")
+    public void pollIfListenerUnavailable() {
+        if (!listenerActive) {
+            refresh();
+        }
+    }
+
+    /**
+     * Recarga el índice completo desde el repositorio.
+     */
+    public void refresh() {
+        try {
+            replace(emojiMoodRepository.findAll(), "polling");
+        } catch (RuntimeException e) {
+            System.err.println("EmojiMoodIndex: Error al recargar el índice, se mantiene la versión " + current.get().version() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Garantiza que el índice se ha cargado al menos una vez, sin bloquear.
+     * Normalmente el listener ya lo ha cargado y se completa inmediatamente; sólo en el
+     * arranque en frío se lee la colección de forma reactiva.
+     * @return Mono que se completa cuando el índice está disponible.
+     */
+    public Mono<Void> ensureLoaded() {
+        if (isLoaded()) {
+            return Mono.empty();
+        }
+        return emojiMoodRepository.findAllReactive()
+                .doOnNext(emojiMoods -> {
+                    if (current.get().version() == 0) {
+                        replace(emojiMoods, "reactive");
+                    }
+                })
+                .onErrorResume(e -> {
+                    System.err.println("EmojiMoodIndex: Error al cargar el índice de forma reactiva: " + e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public boolean isLoaded() {
+        return current.get().version() > 0;
+    }
+
+    /**
+     * Devuelve el género asociado a un emoji, o null si no hay mapeo.
+     * @param emoji El emoji a buscar.
+     * @return El genreHint del emoji o null.
+     */
+    public String findGenre(String emoji) {
+        return current.get().genresByEmoji().get(emoji);
+    }
+
+    /**
+     * Recorre la entrada una sola vez y entrega el género de cada emoji reconocido,
+     * incluidas las secuencias ZWJ, las banderas y los emojis con VS16 o tono de piel.
+     * @param emojisInput La cadena de emojis introducida por el usuario.
+     * @param consumer Recibe el genreHint de cada emoji reconocido, en orden de aparición.
+     * @return Número de emojis sin mapeo en la entrada.
+     */
+    public int forEachGenre(CharSequence emojisInput, Consumer<String> consumer) {
+        return current.get().matcher().forEachMatch(emojisInput, consumer);
+    }
+
+    /**
+     * Devuelve los géneros distintos del índice actual.
+     * @return Los genreHint sin repetir, en el orden del índice.
+     */
+    public Set<String> genres() {
+        return new LinkedHashSet<>(current.get().genresByEmoji().values());
+    }
+
+    public EmojiIndexStatus getStatus() {
+        Snapshot snapshot = current.get();
+        return new EmojiIndexStatus(snapshot.version(), snapshot.genresByEmoji().size(),
+                snapshot.refreshedAt(), snapshot.source(), listenerActive);
+    }
+
+    private synchronized void replace(List<EmojiMood> emojiMoods, String source) {
+        Map<String, String> genresByEmoji = new LinkedHashMap<>();
+        for (EmojiMood mood : emojiMoods) {
+            if (mood.getEmoji() == null || mood.getGenreHint() == null) {
+                continue;
+            }
+            // Si hay emojis repetidos se queda el primero, igual que findByEmoji
+            genresByEmoji.putIfAbsent(mood.getEmoji(), mood.getGenreHint());
+        }
+        Snapshot snapshot = new Snapshot(versionCounter.incrementAndGet(), Map.copyOf(genresByEmoji),
+                EmojiMatcher.build(genresByEmoji), Instant.now(), source);
+        current.set(snapshot);
+        System.out.println("EmojiMoodIndex: Índice actualizado a la versión " + snapshot.version() + " con " + genresByEmoji.size() + " emojis (" + source + ").");
+    }
+
+    private record Snapshot(long version, Map<String, String> genresByEmoji, EmojiMatcher<String> matcher,
+                            Instant refreshedAt, String source) {
+        static final Snapshot EMPTY = new Snapshot(0, Map.of(), EmojiMatcher.empty(), null, "none");
+    }
+}
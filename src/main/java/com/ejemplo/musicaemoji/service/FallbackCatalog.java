@@ -0,0 +1,134 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.SongDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Catálogo estático de canciones de respaldo para cuando Spotify no devuelve resultados.
+ * Se lee una sola vez del fichero JSON configurado en {@code fallback.catalog.location}
+ * a una estructura inmutable indexada por género. Si el fichero está en el sistema de
+ * ficheros, se vigila con un WatchService y se recarga de forma atómica cuando cambia.
+ */
+@Component
+public class FallbackCatalog {
+
+    private static final List<SongDto> NO_RECOMMENDATIONS =
+            List.of(new SongDto(null, "No hay recomendaciones", "N/A", "", "", "Desconocido"));
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+
+    @Value("${fallback.catalog.location:classpath:fallback-songs.json}")
+    private String location;
+
+    private final AtomicReference<Map<String, List<SongDto>>> songsByGenre = new AtomicReference<>(Map.of());
+
+    private volatile WatchService watchService;
+
+    @Autowired
+    public FallbackCatalog(ResourceLoader resourceLoader, ObjectMapper objectMapper) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        songsByGenre.set(load(resource));
+        if (resource.isFile()) {
+            watch(resource.getFile().toPath().toAbsolutePath());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        WatchService service = watchService;
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    /**
+     * Devuelve las canciones de respaldo de un género.
+     * No copia nada: devuelve la lista inmutable del catálogo o una vista de sus primeros elementos.
+     * @param genre El género buscado.
+     * @param limit El número máximo de canciones.
+     * @return Las canciones del género, o una canción "No hay recomendaciones" si el género no existe.
+     */
+    public List<SongDto> getSongsForGenre(String genre, int limit) {
+        List<SongDto> songs = songsByGenre.get().getOrDefault(genre, NO_RECOMMENDATIONS);
+        return songs.size() <= limit ? songs : songs.subList(0, limit);
+    }
+
+    public int size() {
+        return songsByGenre.get().size();
+    }
+
+    private Map<String, List<SongDto>> load(Resource resource) throws IOException {
+        Map<String, List<SongDto>> parsed;
+        try (InputStream input = resource.getInputStream()) {
+            parsed = objectMapper.readValue(input, new TypeReference<LinkedHashMap<String, List<SongDto>>>() {});
+        }
+        Map<String, List<SongDto>> catalog = new LinkedHashMap<>();
+        parsed.forEach((genre, songs) -> catalog.put(genre, List.copyOf(songs)));
+        System.out.println("FallbackCatalog: Cargados " + catalog.size() + " géneros de respaldo desde " + resource.getDescription());
+        return Map.copyOf(catalog);
+    }
+
+    private void watch(Path file) throws IOException {
+        WatchService service = FileSystems.getDefault().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchService = service;
+
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = service.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (file.getFileName().equals(event.context())) {
+                            reload();
+                        }
+                    }
+                    key.reset();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ClosedWatchServiceException e) {
+                // El servicio se cerró al parar la aplicación
+            }
+        }, "fallback-catalog-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void reload() {
+        try {
+            songsByGenre.set(load(resourceLoader.getResource(location)));
+        } catch (IOException | RuntimeException e) {
+            // Un fichero a medio escribir o mal formado no sustituye al catálogo vigente
+            System.err.println("FallbackCatalog: Error al recargar el catálogo, se mantiene el anterior: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.CandidatePoolStats;
+import com.ejemplo.musicaemoji.model.SongDto;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Pools de canciones candidatas por género. Cada pool se llena una vez con varias páginas de
+ * búsqueda de Spotify (paginando con offset) y cada petición se sirve muestreando el pool en
+ * local, con un máximo de canciones por artista. Así casi ninguna petición llama a Spotify y
+ * cada usuario ve una selección distinta.
+ * Los pools se recargan en segundo plano y la memoria está acotada por el total de canciones.
+ */
+public class GenreTrackPool {
+
+    /**
+     * Obtiene una página de resultados de búsqueda de un género. Las cargas por primer uso
+     * se piden como interactivas y las del calentador ({@link #warm(String)}) como de segundo plano.
+     */
+    @FunctionalInterface
+    public interface PageFetcher {
+        Mono<List<SongDto>> fetch(String genre, int offset, int limit, SpotifyRateLimiter.Priority priority);
+    }
+
+    private final PageFetcher pageFetcher;
+    private final int poolSize;
+    private final int pageSize;
+    private final int maxPerArtist;
+    private final long maxTracks;
+    private final Duration refresh;
+
+    private final PoolLoader loader = new PoolLoader();
+    private final AsyncLoadingCache<String, List<SongDto>> pools;
+
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong pagesFetched = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * @param pageFetcher Obtiene cada página de búsqueda.
+     * @param poolSize Canciones que se intentan reunir por género.
+     * @param pageSize Canciones por página (Spotify admite como máximo 50).
+     * @param maxPerArtist Canciones de un mismo artista como máximo en cada muestra.
+     * @param maxTracks Canciones como máximo entre todos los pools.
+     * @param refresh Intervalo de recarga esperado; un pool que no se recarga caduca al doble.
+     * @param emptyTtl Tiempo que se recuerda un pool vacío antes de volver a intentarlo.
+     */
+    public GenreTrackPool(PageFetcher pageFetcher, int poolSize, int pageSize, int maxPerArtist, long maxTracks,
+                          Duration refresh, Duration emptyTtl) {
+        this.pageFetcher = pageFetcher;
+        this.poolSize = poolSize;
+        this.pageSize = pageSize;
+        this.maxPerArtist = maxPerArtist;
+        this.maxTracks = maxTracks;
+        this.refresh = refresh;
+        this.pools = Caffeine.newBuilder()
+                .maximumWeight(maxTracks)
+                .weigher((String genre, List<SongDto> pool) -> Math.max(1, pool.size()))
+                .expireAfter(new PoolExpiry(refresh.multipliedBy(2).toNanos(), emptyTtl.toNanos()))
+                .recordStats()
+                .buildAsync(loader);
+    }
+
+    /**
+     * Devuelve una muestra aleatoria del pool del género, cargándolo si todavía no existe.
+     * @param genre El género.
+     * @param count Canciones que se quieren.
+     * @return Mono con hasta {@code count} canciones; vacía si Spotify no devolvió nada para el género.
+     */
+    public Mono<List<SongDto>> sample(String genre, int count) {
+        return Mono.fromFuture(() -> pools.get(genre), true)
+                .map(pool -> {
+                    samples.incrementAndGet();
+                    return sample(pool, count);
+                });
+    }
+
+    /**
+     * Indica si el pool del género debe recargarse antes de {@code margin}: no existe, está vacío
+     * o habrá superado para entonces el intervalo de recarga.
+     * @param genre El género.
+     * @param margin Tiempo hasta la próxima oportunidad de recargarlo.
+     * @return true si conviene recargarlo ya.
+     */
+    public boolean needsWarming(String genre, Duration margin) {
+        // Un pool con canciones vive el doble del intervalo de recarga: le toca cuando le queda
+        // menos de un intervalo más el margen
+        return pools.synchronous().policy().expireVariably()
+                .flatMap(expiry -> expiry.getExpiresAfter(genre))
+                .map(remaining -> remaining.compareTo(refresh.plus(margin)) <= 0)
+                .orElse(true);
+    }
+
+    /**
+     * Recarga el pool del género, o lo carga si no existía, siempre con prioridad de segundo
+     * plano: no pasa por el cargador de la caché, que para géneros ausentes pediría las páginas
+     * como interactivas. Mientras se recarga se sigue sirviendo el anterior, y si la recarga no
+     * trae canciones se conserva el anterior.
+     * @param genre El género.
+     * @return Future con el pool recién obtenido, vacío si la recarga no trajo canciones aunque
+     *         se haya conservado el anterior, para que el calentador lo cuente como fallo.
+     */
+    public CompletableFuture<List<SongDto>> warm(String genre) {
+        refreshes.incrementAndGet();
+        List<SongDto> previous = pools.synchronous().policy().getIfPresentQuietly(genre);
+        return loader.load(genre, SpotifyRateLimiter.Priority.BACKGROUND).thenApply(pool -> {
+            List<SongDto> kept = pool.isEmpty() && previous != null && !previous.isEmpty() ? previous : pool;
+            pools.put(genre, CompletableFuture.completedFuture(kept));
+            return pool;
+        });
+    }
+
+    public CandidatePoolStats getStats() {
+        CacheStats stats = pools.synchronous().stats();
+        Map<String, List<SongDto>> loaded = pools.synchronous().asMap();
+        long tracks = loaded.values().stream().mapToLong(List::size).sum();
+        return new CandidatePoolStats(loaded.size(), tracks, maxTracks, samples.get(),
+                stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                refreshes.get(), pagesFetched.get());
+    }
+
+    /**
+     * Elige canciones al azar sin repetir y sin superar {@code maxPerArtist} por artista.
+     * Si el límite por artista deja la muestra corta, se completa con el resto de canciones.
+     */
+    private List<SongDto> sample(List<SongDto> pool, int count) {
+        if (pool.isEmpty()) {
+            return pool;
+        }
+        List<SongDto> shuffled = new ArrayList<>(pool);
+        Collections.shuffle(shuffled, ThreadLocalRandom.current());
+        List<SongDto> selected = new ArrayList<>(count);
+        List<SongDto> skipped = new ArrayList<>();
+        Map<String, Integer> perArtist = new HashMap<>();
+        for (SongDto song : shuffled) {
+            if (selected.size() == count) {
+                break;
+            }
+            if (perArtist.merge(song.getArtist(), 1, Integer::sum) <= maxPerArtist) {
+                selected.add(song);
+            } else {
+                skipped.add(song);
+            }
+        }
+        for (int i = 0; selected.size() < count && i < skipped.size(); i++) {
+            selected.add(skipped.get(i));
+        }
+        return selected;
+    }
+
+    private class PoolLoader implements AsyncCacheLoader<String, List<SongDto>> {
+        @Override
+        public CompletableFuture<List<SongDto>> asyncLoad(String genre, Executor executor) {
+            return load(genre, SpotifyRateLimiter.Priority.INTERACTIVE);
+        }
+
+        private CompletableFuture<List<SongDto>> load(String genre, SpotifyRateLimiter.Priority priority) {
+            List<Integer> offsets = new ArrayList<>();
+            for (int offset = 0; offset < poolSize; offset += pageSize) {
+                offsets.add(offset);
+            }
+            return Flux.fromIterable(offsets)
+                    .flatMapSequential(offset -> {
+                        pagesFetched.incrementAndGet();
+                        return pageFetcher.fetch(genre, offset, Math.min(pageSize, poolSize - offset), priority);
+                    })
+                    .flatMapIterable(page -> page)
+                    .distinct(SongDto::getSpotifyUrl)
+                    .collect(Collectors.toUnmodifiableList())
+                    .doOnNext(pool -> System.out.println("GenreTrackPool: Pool de " + genre + " cargado con " + pool.size() + " canciones."))
+                    .toFuture();
+        }
+    }
+
+    /**
+     * Caducidad por pool: los pools vacíos caducan antes para volver a intentarlo pronto.
+     */
+    private static class PoolExpiry implements Expiry<String, List<SongDto>> {
+        private final long filledNanos;
+        private final long emptyNanos;
+
+        PoolExpiry(long filledNanos, long emptyNanos) {
+            this.filledNanos = filledNanos;
+            this.emptyNanos = emptyNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String genre, List<SongDto> pool, long currentTime) {
+            return pool.isEmpty() ? emptyNanos : filledNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String genre, List<SongDto> pool, long currentTime, long currentDuration) {
+            return expireAfterCreate(genre, pool, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String genre, List<SongDto> pool, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ejemplo.musicaemoji.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Métricas de la ruta de recomendación:
+ * <ul>
+ *   <li>{@code recommendation.emojis}: emojis de la entrada con y sin mapeo (result=matched|unmatched).</li>
+ *   <li>{@code recommendation.genres}: número de géneros resueltos por entrada.</li>
+ *   <li>{@code recommendation.fallback}: géneros servidos desde el fallback estático, por género y motivo.</li>
+ * </ul>
+ * Los contadores de fallback se crean la primera vez que aparece cada género y se reutilizan después,
+ * así que registrar un valor no reserva memoria.
+ */
+@Component
+public class RecommendationMetrics {
+
+    // Motivos del fallback: Spotify no devolvió canciones, la búsqueda no terminó en el plazo
+    // o el lote superó el límite de búsquedas
+    public static final String FALLBACK_EMPTY = "empty";
+    public static final String FALLBACK_TIMEOUT = "timeout";
+    public static final String FALLBACK_BATCH_LIMIT = "batch-limit";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter matchedEmojis;
+    private final Counter unmatchedEmojis;
+    private final DistributionSummary genresPerRequest;
+    private final Map<String, Map<String, Counter>> fallbacksByReason = Map.of(
+            FALLBACK_EMPTY, new ConcurrentHashMap<>(),
+            FALLBACK_TIMEOUT, new ConcurrentHashMap<>(),
+            FALLBACK_BATCH_LIMIT, new ConcurrentHashMap<>());
+
+    public RecommendationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.matchedEmojis = emojiCounter("matched");
+        this.unmatchedEmojis = emojiCounter("unmatched");
+        this.genresPerRequest = DistributionSummary.builder("recommendation.genres")
+                .description("Géneros resueltos por entrada de emojis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra el resultado de resolver una entrada de emojis.
+     * @param matched Emojis con mapeo.
+     * @param unmatched Emojis sin mapeo.
+     * @param genres Géneros distintos resueltos.
+     */
+    public void recordResolution(int matched, int unmatched, int genres) {
+        if (matched > 0) {
+            matchedEmojis.increment(matched);
+        }
+        if (unmatched > 0) {
+            unmatchedEmojis.increment(unmatched);
+        }
+        genresPerRequest.record(genres);
+    }
+
+    /**
+     * Cuenta un género servido desde el fallback estático.
+     * @param genre El género.
+     * @param reason Uno de {@link #FALLBACK_EMPTY}, {@link #FALLBACK_TIMEOUT} o {@link #FALLBACK_BATCH_LIMIT}.
+     */
+    public void recordFallback(String genre, String reason) {
+        Map<String, Counter> counters = fallbacksByReason.get(reason);
+        Counter counter = counters.get(genre);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(genre, key -> Counter.builder("recommendation.fallback")
+                    .description("Géneros servidos desde el fallback estático")
+                    .tag("genre", key)
+                    .tag("reason", reason)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    private Counter emojiCounter(String result) {
+        return Counter.builder("recommendation.emojis")
+                .description("Emojis de la entrada con y sin mapeo")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.CoalescingStats;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa peticiones idénticas concurrentes (single-flight): mientras hay un cálculo en curso
+ * para una clave, las peticiones con la misma clave se unen a él y comparten su resultado en
+ * lugar de lanzar otro. Cuando el cálculo termina se retira, así que no actúa como caché.
+ * @param <K> Tipo de la clave canónica de la petición.
+ * @param <V> Tipo del resultado compartido.
+ */
+public class RequestCoalescer<K, V> {
+
+    private final ConcurrentHashMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final LongAdder joinedWaitNanos = new LongAdder();
+
+    /**
+     * Ejecuta el cálculo para la clave o se une al que ya está en curso.
+     * @param key La clave canónica de la petición.
+     * @param computation Crea el cálculo; sólo se invoca si no hay ninguno en curso para la clave.
+     * @return Mono con el resultado compartido.
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> computation) {
+        return Mono.defer(() -> {
+            requests.incrementAndGet();
+            boolean[] created = new boolean[1];
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return computation.get()
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+            if (created[0]) {
+                return shared;
+            }
+            coalesced.incrementAndGet();
+            long start = System.nanoTime();
+            return shared.doFinally(signal -> joinedWaitNanos.add(System.nanoTime() - start));
+        });
+    }
+
+    public CoalescingStats getStats() {
+        long total = requests.get();
+        long joined = coalesced.get();
+        return new CoalescingStats(total, joined,
+                total == 0 ? 0 : (double) joined / total,
+                joined == 0 ? 0 : joinedWaitNanos.sum() / joined / 1_000_000,
+                inFlight.size());
+    }
+}
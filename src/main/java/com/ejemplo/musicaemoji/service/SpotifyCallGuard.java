@@ -0,0 +1,278 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.SpotifyResilienceStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Capa de resiliencia alrededor de cada llamada HTTP a Spotify: timeout por llamada,
+ * cortocircuito que pasa directamente al fallback mientras Spotify falla, límite adaptativo
+ * de llamadas simultáneas y, opcionalmente, una petición duplicada cuando la original
+ * supera el percentil de latencia configurado.
+ * El estado del cortocircuito, el límite y los contadores se publican en Micrometer
+ * ({@code spotify.breaker.*}, {@code spotify.limiter.*}, {@code spotify.calls.timeouts}, {@code spotify.hedges}).
+ */
+@Component
+public class SpotifyCallGuard {
+
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int PERCENTILE_RECALC_EVERY = 32;
+
+    private final Duration timeout;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayMillis;
+
+    private final CircuitBreaker circuitBreaker;
+    private final AimdConcurrencyLimiter limiter;
+    private final SpotifyRateLimiter rateLimiter;
+
+    private final AtomicLong limiterRejections = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    // Latencias recientes (ms) para calcular el umbral de duplicado
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyIndex;
+    private int latencyCount;
+    private volatile long percentileMillis;
+
+    public SpotifyCallGuard(SpotifyRateLimiter rateLimiter,
+                            MeterRegistry meterRegistry,
+                            @Value("${spotify.resilience.timeout-ms:2000}") long timeoutMillis,
+                            @Value("${spotify.resilience.breaker.window:20}") int breakerWindow,
+                            @Value("${spotify.resilience.breaker.min-calls:10}") int breakerMinCalls,
+                            @Value("${spotify.resilience.breaker.failure-rate:0.5}") double breakerFailureRate,
+                            @Value("${spotify.resilience.breaker.open-ms:30000}") long breakerOpenMillis,
+                            @Value("${spotify.resilience.limiter.initial:10}") int limiterInitial,
+                            @Value("${spotify.resilience.limiter.min:2}") int limiterMin,
+                            @Value("${spotify.resilience.limiter.max:50}") int limiterMax,
+                            @Value("${spotify.resilience.limiter.backoff:0.7}") double limiterBackoff,
+                            @Value("${spotify.resilience.limiter.slow-ms:1000}") long limiterSlowMillis,
+                            @Value("${spotify.resilience.hedge.enabled:false}") boolean hedgeEnabled,
+                            @Value("${spotify.resilience.hedge.percentile:0.95}") double hedgePercentile,
+                            @Value("${spotify.resilience.hedge.min-delay-ms:100}") long hedgeMinDelayMillis) {
+        this.rateLimiter = rateLimiter;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.circuitBreaker = new CircuitBreaker(breakerWindow, breakerMinCalls, breakerFailureRate,
+                Duration.ofMillis(breakerOpenMillis).toNanos());
+        this.limiter = new AimdConcurrencyLimiter(limiterInitial, limiterMin, limiterMax, limiterBackoff,
+                Duration.ofMillis(limiterSlowMillis).toNanos());
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+        registerMetrics(meterRegistry);
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("spotify.breaker.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                    .description("1 en el estado actual del cortocircuito, 0 en los demás")
+                    .tag("state", state.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("spotify.breaker.failure.rate", circuitBreaker, CircuitBreaker::getFailureRate)
+                .description("Tasa de fallos en la ventana del cortocircuito")
+                .register(meterRegistry);
+        FunctionCounter.builder("spotify.breaker.opened", circuitBreaker, CircuitBreaker::getOpenedCount)
+                .description("Veces que se ha abierto el cortocircuito")
+                .register(meterRegistry);
+        FunctionCounter.builder("spotify.breaker.short.circuited", circuitBreaker, CircuitBreaker::getShortCircuited)
+                .description("Llamadas rechazadas por el cortocircuito")
+                .register(meterRegistry);
+        Gauge.builder("spotify.limiter.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .description("Límite adaptativo de llamadas simultáneas")
+                .register(meterRegistry);
+        Gauge.builder("spotify.limiter.in.flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .description("Llamadas a Spotify en curso")
+                .register(meterRegistry);
+        FunctionCounter.builder("spotify.limiter.rejections", limiterRejections, AtomicLong::get)
+                .description("Llamadas rechazadas por el límite de llamadas simultáneas")
+                .register(meterRegistry);
+        FunctionCounter.builder("spotify.calls.timeouts", timeouts, AtomicLong::get)
+                .description("Llamadas a Spotify que agotaron su timeout")
+                .register(meterRegistry);
+        FunctionCounter.builder("spotify.hedges", hedgesSent, AtomicLong::get)
+                .description("Peticiones duplicadas")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("spotify.hedges", hedgesWon, AtomicLong::get)
+                .description("Peticiones duplicadas")
+                .tag("result", "won")
+                .register(meterRegistry);
+        TimeGauge.builder("spotify.hedge.threshold", this, TimeUnit.MILLISECONDS, guard -> guard.percentileMillis)
+                .description("Latencia a partir de la cual se envía la petición duplicada")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta una llamada a Spotify protegida. Si el circuito está abierto falla de inmediato
+     * con {@link SpotifyUnavailableException}, sin esperar turno ni gastar un token. Si no,
+     * espera turno en el planificador de llamadas según su prioridad y, si se ha alcanzado el
+     * límite de llamadas simultáneas, también falla sin llamar a Spotify.
+     * @param priority INTERACTIVE para peticiones de usuario, BACKGROUND para recargas.
+     * @param call Crea la llamada; se invoca una vez por intento (dos si se duplica).
+     * @return Mono con la respuesta de la primera llamada que termine bien.
+     */
+    public <T> Mono<T> execute(SpotifyRateLimiter.Priority priority, Supplier<Mono<T>> call) {
+        Mono<T> primary = attempt(priority, call);
+        if (!hedgeEnabled) {
+            return primary;
+        }
+        return Mono.defer(() -> {
+            long delay = Math.max(hedgeMinDelayMillis, percentileMillis);
+            Mono<T> hedge = Mono.delay(Duration.ofMillis(delay))
+                    .then(Mono.defer(() -> {
+                        hedgesSent.incrementAndGet();
+                        return attempt(priority, call).doOnNext(value -> hedgesWon.incrementAndGet());
+                    }));
+            return Mono.firstWithValue(primary, hedge);
+        });
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public SpotifyResilienceStats getStats() {
+        return new SpotifyResilienceStats(circuitBreaker.getState().name(), circuitBreaker.getFailureRate(),
+                circuitBreaker.getOpenedCount(), circuitBreaker.getShortCircuited(),
+                limiter.getLimit(), limiter.getInFlight(), limiterRejections.get(), timeouts.get(),
+                hedgesSent.get(), hedgesWon.get(), percentileMillis);
+    }
+
+    /**
+     * Un intento: cortocircuito, turno en el planificador y límite de llamadas simultáneas, en
+     * ese orden. El permiso del cortocircuito se libera sin contar si el turno falla o se cancela.
+     */
+    private <T> Mono<T> attempt(SpotifyRateLimiter.Priority priority, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                return Mono.error(new SpotifyUnavailableException("circuito abierto"));
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return rateLimiter.acquire(priority)
+                    .doOnError(error -> {
+                        if (released.compareAndSet(false, true)) {
+                            circuitBreaker.onIgnored();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            circuitBreaker.onIgnored();
+                        }
+                    })
+                    .then(Mono.defer(() -> call(call, released)));
+        });
+    }
+
+    private <T> Mono<T> call(Supplier<Mono<T>> call, AtomicBoolean released) {
+        if (!limiter.tryAcquire()) {
+            if (released.compareAndSet(false, true)) {
+                circuitBreaker.onIgnored();
+            }
+            limiterRejections.incrementAndGet();
+            return Mono.error(new SpotifyUnavailableException("límite de llamadas simultáneas alcanzado"));
+        }
+        long start = System.nanoTime();
+        return call.get()
+                .timeout(timeout)
+                .doOnSuccess(value -> {
+                    if (released.compareAndSet(false, true)) {
+                        long elapsed = System.nanoTime() - start;
+                        recordLatency(elapsed / 1_000_000);
+                        circuitBreaker.onSuccess();
+                        limiter.onSuccess(elapsed);
+                    }
+                })
+                .doOnError(error -> {
+                    if (released.compareAndSet(false, true)) {
+                        if (error instanceof TimeoutException) {
+                            timeouts.incrementAndGet();
+                        }
+                        if (error instanceof WebClientResponseException response && response.getStatusCode().value() == 429) {
+                            rateLimiter.onRateLimited(retryAfter(response));
+                        }
+                        if (isUpstreamFailure(error)) {
+                            circuitBreaker.onFailure();
+                            limiter.onDropped();
+                        } else {
+                            // Un 4xx es un error de la petición, no de la salud de Spotify
+                            circuitBreaker.onSuccess();
+                            limiter.onSuccess(System.nanoTime() - start);
+                        }
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (released.compareAndSet(false, true)) {
+                        circuitBreaker.onIgnored();
+                        limiter.onIgnored();
+                    }
+                });
+    }
+
+    /**
+     * Timeouts, errores de red y 5xx cuentan como fallos de Spotify. Los 4xx no, incluido el
+     * 429: de ese se encarga el planificador pausando el despacho.
+     */
+    private static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return true;
+    }
+
+    /**
+     * Lee la cabecera Retry-After, en segundos o como fecha HTTP.
+     * @return La espera indicada, o null si no viene o no se entiende.
+     */
+    static Duration retryAfter(WebClientResponseException response) {
+        String value = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration untilDate = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                return untilDate.isNegative() ? Duration.ZERO : untilDate;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private synchronized void recordLatency(long millis) {
+        latencies[latencyIndex] = millis;
+        latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+        if (latencyCount < LATENCY_SAMPLES) {
+            latencyCount++;
+        }
+        if (latencyIndex % PERCENTILE_RECALC_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            percentileMillis = sorted[Math.min(latencyCount - 1, (int) (hedgePercentile * latencyCount))];
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.SpotifyRateLimiterStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Planificador de llamadas a Spotify con token bucket y dos colas de prioridad: las peticiones
+ * de usuario salen siempre antes que las recargas en segundo plano.
+ * Cuando Spotify responde 429 se pausa todo el despacho hasta que pasa el Retry-After; durante
+ * la pausa las peticiones de usuario se rechazan al momento (usan el fallback) y las recargas esperan.
+ * Publica en Micrometer la cola por prioridad ({@code spotify.rate.queue}), la pausa restante
+ * ({@code spotify.rate.pause.remaining}), la espera por prioridad ({@code spotify.rate.wait}) y los
+ * rechazos y respuestas 429 ({@code spotify.rate.rejected}, {@code spotify.rate.limited}).
+ */
+@Component
+public class SpotifyRateLimiter {
+
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int maxQueue;
+
+    private final Deque<Waiter> interactive = new ArrayDeque<>();
+    private final Deque<Waiter> background = new ArrayDeque<>();
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+    private long pausedUntilNanos;
+    private boolean drainScheduled;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "spotify-rate-limiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong interactiveDispatched = new AtomicLong();
+    private final AtomicLong backgroundDispatched = new AtomicLong();
+    private final AtomicLong interactiveWaitNanos = new AtomicLong();
+    private final AtomicLong backgroundWaitNanos = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong rateLimitedResponses = new AtomicLong();
+
+    private final Timer interactiveWait;
+    private final Timer backgroundWait;
+    private final Counter rejectedCounter;
+    private final Counter rateLimitedCounter;
+
+    public SpotifyRateLimiter(MeterRegistry meterRegistry,
+                              @Value("${spotify.rate.per-second:10}") double permitsPerSecond,
+                              @Value("${spotify.rate.burst:10}") int burst,
+                              @Value("${spotify.rate.max-queue:500}") int maxQueue) {
+        this.capacity = burst;
+        this.tokens = burst;
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000d;
+        this.maxQueue = maxQueue;
+
+        this.interactiveWait = waitTimer(meterRegistry, Priority.INTERACTIVE);
+        this.backgroundWait = waitTimer(meterRegistry, Priority.BACKGROUND);
+        this.rejectedCounter = Counter.builder("spotify.rate.rejected")
+                .description("Llamadas rechazadas por cola llena o pausa por 429")
+                .register(meterRegistry);
+        this.rateLimitedCounter = Counter.builder("spotify.rate.limited")
+                .description("Respuestas 429 de Spotify")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            Gauge.builder("spotify.rate.queue", this, limiter -> limiter.queueSize(priority))
+                    .description("Llamadas esperando turno")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+        TimeGauge.builder("spotify.rate.pause.remaining", this, TimeUnit.NANOSECONDS, SpotifyRateLimiter::pauseRemainingNanos)
+                .description("Tiempo restante de la pausa por 429")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Espera turno para hacer una llamada a Spotify.
+     * @param priority INTERACTIVE para peticiones de usuario, BACKGROUND para recargas.
+     * @return Mono que se completa cuando la llamada puede salir. Falla con
+     *         {@link SpotifyUnavailableException} si la cola está llena, o si la llamada es
+     *         interactiva y Spotify ha pedido pausar. Cancelarlo libera el sitio en la cola.
+     */
+    public Mono<Void> acquire(Priority priority) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, priority, System.nanoTime());
+            String rejection = enqueue(waiter);
+            if (rejection != null) {
+                rejected.incrementAndGet();
+                rejectedCounter.increment();
+                sink.error(new SpotifyUnavailableException(rejection));
+                return;
+            }
+            sink.onCancel(() -> remove(waiter));
+            drain();
+        });
+    }
+
+    /**
+     * Registra una respuesta 429: se vacía el bucket y nada sale hasta que pase {@code retryAfter}.
+     * @param retryAfter El tiempo indicado por la cabecera Retry-After (null si no venía).
+     */
+    public void onRateLimited(Duration retryAfter) {
+        Duration pause = retryAfter == null ? DEFAULT_RETRY_AFTER : retryAfter;
+        rateLimitedResponses.incrementAndGet();
+        rateLimitedCounter.increment();
+        synchronized (this) {
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + pause.toNanos());
+            tokens = 0;
+            // El bucket vuelve a llenarse desde el final de la pausa: si no, el primer despacho
+            // tras el Retry-After contaría la pausa como tiempo transcurrido y soltaría una ráfaga
+            lastRefillNanos = pausedUntilNanos;
+        }
+        System.err.println("SpotifyRateLimiter: Spotify respondió 429. Despacho pausado durante " + pause.toMillis() + " ms.");
+        drain();
+    }
+
+    public synchronized SpotifyRateLimiterStats getStats() {
+        long now = System.nanoTime();
+        refill(now);
+        long interactiveCount = interactiveDispatched.get();
+        long backgroundCount = backgroundDispatched.get();
+        return new SpotifyRateLimiterStats(tokens, interactive.size(), background.size(),
+                interactiveCount, backgroundCount,
+                interactiveCount == 0 ? 0 : interactiveWaitNanos.get() / interactiveCount / 1_000_000,
+                backgroundCount == 0 ? 0 : backgroundWaitNanos.get() / backgroundCount / 1_000_000,
+                rejected.get(), rateLimitedResponses.get(),
+                Math.max(0, (pausedUntilNanos - now) / 1_000_000));
+    }
+
+    private synchronized int queueSize(Priority priority) {
+        return (priority == Priority.INTERACTIVE ? interactive : background).size();
+    }
+
+    private synchronized double pauseRemainingNanos() {
+        return Math.max(0, pausedUntilNanos - System.nanoTime());
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, Priority priority) {
+        return Timer.builder("spotify.rate.wait")
+                .description("Espera en la cola hasta que la llamada puede salir")
+                .tag("priority", priority.name())
+                .register(meterRegistry);
+    }
+
+    private synchronized String enqueue(Waiter waiter) {
+        if (waiter.priority == Priority.INTERACTIVE && System.nanoTime() < pausedUntilNanos) {
+            return "pausa por límite de peticiones (429)";
+        }
+        if (interactive.size() + background.size() >= maxQueue) {
+            return "cola de llamadas llena";
+        }
+        (waiter.priority == Priority.INTERACTIVE ? interactive : background).addLast(waiter);
+        return null;
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        (waiter.priority == Priority.INTERACTIVE ? interactive : background).remove(waiter);
+    }
+
+    /**
+     * Despacha tantas llamadas como tokens haya, primero las interactivas, y programa el
+     * siguiente despacho si quedan llamadas en cola. Los llamantes se liberan fuera del cerrojo.
+     */
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (now < pausedUntilNanos) {
+                scheduleDrain(pausedUntilNanos - now);
+                return;
+            }
+            refill(now);
+            while (tokens >= 1) {
+                Waiter waiter = interactive.isEmpty() ? background.pollFirst() : interactive.pollFirst();
+                if (waiter == null) {
+                    break;
+                }
+                tokens -= 1;
+                granted.add(waiter);
+            }
+            if (!interactive.isEmpty() || !background.isEmpty()) {
+                scheduleDrain((long) Math.ceil((1 - tokens) / tokensPerNano));
+            }
+        }
+        long now = System.nanoTime();
+        for (Waiter waiter : granted) {
+            long waited = now - waiter.enqueuedAtNanos;
+            if (waiter.priority == Priority.INTERACTIVE) {
+                interactiveDispatched.incrementAndGet();
+                interactiveWaitNanos.addAndGet(waited);
+                interactiveWait.record(waited, TimeUnit.NANOSECONDS);
+            } else {
+                backgroundDispatched.incrementAndGet();
+                backgroundWaitNanos.addAndGet(waited);
+                backgroundWait.record(waited, TimeUnit.NANOSECONDS);
+            }
+            waiter.sink.success();
+        }
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefillNanos) {
+            return; // Aún dentro de la pausa por 429
+        }
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        timer.schedule(() -> {
+            synchronized (this) {
+                drainScheduled = false;
+            }
+            drain();
+        }, Math.max(1, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    private record Waiter(MonoSink<Void> sink, Priority priority, long enqueuedAtNanos) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.SongDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee las respuestas de Spotify en streaming con JsonParser, sin construir el árbol JsonNode.
+ * Sólo extrae los campos que necesita SongDto (nombre, primer artista, URL de Spotify y preview);
+ * el resto de subárboles (álbum, imágenes, available_markets...) se saltan sin crear objetos.
+ */
+public final class SpotifyResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory(); // Es seguro compartirlo entre hilos
+    private static final String UNKNOWN_ARTIST = "Desconocido";
+
+    private SpotifyResponseParser() {
+    }
+
+    /**
+     * Lee la respuesta de /search (tracks.items).
+     * @param body El cuerpo de la respuesta.
+     * @param genreHint El género que se asigna a cada canción.
+     * @return Las canciones en el orden de Spotify; vacía si la respuesta no trae canciones.
+     */
+    public static List<SongDto> parseSearchTracks(byte[] body, String genreHint) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "tracks") && parser.currentToken() == JsonToken.START_OBJECT
+                    && moveToField(parser, "items")) {
+                return readTracks(parser, genreHint);
+            }
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Lee la respuesta de /recommendations (tracks en la raíz).
+     * @param body El cuerpo de la respuesta.
+     * @param genreHint El género que se asigna a cada canción (puede ser null).
+     * @return Las canciones en el orden de Spotify.
+     */
+    public static List<SongDto> parseRecommendationTracks(byte[] body, String genreHint) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT && moveToField(parser, "tracks")) {
+                return readTracks(parser, genreHint);
+            }
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Avanza dentro del objeto actual hasta el valor del campo indicado, saltando los demás.
+     * @return true si el campo existe; el parser queda en su primer token.
+     */
+    private static boolean moveToField(JsonParser parser, String fieldName) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String current = parser.currentName();
+            parser.nextToken();
+            if (fieldName.equals(current)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static List<SongDto> readTracks(JsonParser parser, String genreHint) throws IOException {
+        List<SongDto> tracks = new ArrayList<>();
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return tracks;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                tracks.add(readTrack(parser, genreHint));
+            } else {
+                parser.skipChildren(); // Elementos nulos
+            }
+        }
+        return tracks;
+    }
+
+    private static SongDto readTrack(JsonParser parser, String genreHint) throws IOException {
+        String name = "";
+        String artist = UNKNOWN_ARTIST;
+        String spotifyUrl = "";
+        String previewUrl = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = parser.getValueAsString("");
+                case "artists" -> {
+                    String firstArtist = readFirstArtistName(parser);
+                    if (firstArtist != null) {
+                        artist = firstArtist;
+                    }
+                }
+                case "external_urls" -> spotifyUrl = readSpotifyUrl(parser);
+                case "preview_url" -> previewUrl = parser.getValueAsString("");
+                default -> parser.skipChildren();
+            }
+        }
+        return new SongDto(null, name, artist, spotifyUrl, previewUrl, genreHint);
+    }
+
+    /**
+     * Devuelve el nombre del primer artista, o null si el array está vacío o no es un array.
+     */
+    private static String readFirstArtistName(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String firstName = null;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (firstName == null && parser.currentToken() == JsonToken.START_OBJECT && moveToField(parser, "name")) {
+                firstName = parser.getValueAsString();
+                // Sale del resto del objeto del artista
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return firstName;
+    }
+
+    private static String readSpotifyUrl(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return "";
+        }
+        String url = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("spotify".equals(field)) {
+                url = parser.getValueAsString("");
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return url;
+    }
+}
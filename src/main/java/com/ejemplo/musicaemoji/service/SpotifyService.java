@@ -1,75 +1,137 @@
 package com.ejemplo.musicaemoji.service;
 
+import com.ejemplo.musicaemoji.config.SpotifyClientMetrics;
+import com.ejemplo.musicaemoji.model.CandidatePoolStats;
 import com.ejemplo.musicaemoji.model.SongDto;
+import com.ejemplo.musicaemoji.model.SpotifyCacheStats;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 @Service
 public class SpotifyService {
 
-    private static final String SPOTIFY_AUTH_URL = "https://accounts.spotify.com/api/token";
-    private static final String SPOTIFY_API_URL = "https://api.spotify.com/v1";
+    private static final String MARKET = "ES"; // Fuerza el catálogo de España
+    private static final String RECOMMENDATIONS_TYPE = "recommendations"; // Tipo de SearchKey para /recommendations
+    private static final int MAX_SEEDS = 5; // Máximo de semillas que admite /recommendations
+    private static final int MAX_RECOMMENDATIONS = 100; // Máximo de canciones por llamada a /recommendations
+    private static final int POOL_PAGE_SIZE = 50; // Máximo de resultados por página de /search
+    private static final int MAX_RESPONSE_BYTES = 2 * 1024 * 1024; // Una página de 50 canciones cabe con holgura
 
-    @Value("${spotify.client.id}")
-    private String clientId;
-
-    @Value("${spotify.client.secret}")
-    private String clientSecret;
+    // Géneros del catálogo cuya semilla de Spotify no se obtiene sólo normalizando el nombre
+    private static final Map<String, String> SEED_ALIASES = Map.of(
+            "clasica", "classical",
+            "electronica", "electronic",
+            "film-score", "soundtracks",
+            "anime-ost", "anime",
+            "childrens-music", "children",
+            "holiday-music", "holidays",
+            "psychedelic-rock", "psych-rock",
+            "drum-n-bass", "drum-and-bass"
+    );
 
     private final WebClient webClient;
 
-    private final ConcurrentHashMap<String, String> tokenCache = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Long> tokenExpiry = new ConcurrentHashMap<>();
+    private final SpotifyTokenProvider tokenProvider;
 
-    public SpotifyService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl(SPOTIFY_API_URL).build();
-    }
+    private final SpotifyCallGuard callGuard; // Timeout, cortocircuito y límite adaptativo por llamada
 
-    private Mono<String> getAccessToken() {
-        String cachedToken = tokenCache.get("spotify_access_token");
-        Long expiryTime = tokenExpiry.get("spotify_access_token");
+    // Caché de búsquedas: sirve la entrada caducada mientras se refresca en segundo plano
+    private final AsyncLoadingCache<SearchKey, List<SongDto>> searchCache;
 
-        if (cachedToken != null && expiryTime != null && System.currentTimeMillis() < expiryTime) {
-            return Mono.just(cachedToken);
-        }
+    // "search": una búsqueda por género; "seeds": hasta 5 géneros por llamada a /recommendations
+    private final boolean seedsMode;
 
-        String authString = clientId + ":" + clientSecret;
-        String encodedAuthString = Base64.getEncoder().encodeToString(authString.getBytes(StandardCharsets.UTF_8));
+    // Pools de canciones candidatas por género; null si están desactivados
+    private final GenreTrackPool candidatePool;
 
-        return WebClient.builder().baseUrl(SPOTIFY_AUTH_URL).build()
-                .post()
-                .header(HttpHeaders.AUTHORIZATION, "Basic " + encodedAuthString)
-                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                .body(BodyInserters.fromFormData("grant_type", "client_credentials"))
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .map(jsonNode -> {
-                    String accessToken = jsonNode.get("access_token").asText();
-                    long expiresIn = jsonNode.get("expires_in").asLong();
-                    long newExpiryTime = System.currentTimeMillis() + (expiresIn * 1000) - 5000;
+    // Peticiones por género, para que el calentador priorice los géneros más pedidos
+    private final ConcurrentHashMap<String, LongAdder> genreRequestCounts = new ConcurrentHashMap<>();
 
-                    tokenCache.put("spotify_access_token", accessToken);
-                    tokenExpiry.put("spotify_access_token", newExpiryTime);
-                    return accessToken;
-                });
+    // Semillas de género disponibles en Spotify, consultadas una vez y guardadas durante su TTL
+    private final Mono<Set<String>> availableGenreSeeds;
+
+    public SpotifyService(WebClient.Builder webClientBuilder,
+                          SpotifyTokenProvider tokenProvider,
+                          SpotifyCallGuard callGuard,
+                          SpotifyClientMetrics clientMetrics,
+                          @Value("${spotify.api-url:https://api.spotify.com/v1}") String apiUrl,
+                          @Value("${spotify.cache.ttl-seconds:3600}") long ttlSeconds,
+                          @Value("${spotify.cache.stale-seconds:600}") long staleSeconds,
+                          @Value("${spotify.cache.negative-ttl-seconds:60}") long negativeTtlSeconds,
+                          @Value("${spotify.cache.max-entries:1000}") long maxEntries,
+                          @Value("${spotify.retrieval.mode:search}") String retrievalMode,
+                          @Value("${spotify.genre-seeds.ttl-seconds:86400}") long genreSeedsTtlSeconds,
+                          @Value("${spotify.genre-seeds.negative-ttl-seconds:30}") long genreSeedsNegativeTtlSeconds,
+                          @Value("${spotify.pool.enabled:true}") boolean poolEnabled,
+                          @Value("${spotify.pool.size:100}") int poolSize,
+                          @Value("${spotify.pool.max-per-artist:2}") int poolMaxPerArtist,
+                          @Value("${spotify.pool.max-tracks:20000}") long poolMaxTracks,
+                          @Value("${spotify.pool.refresh-seconds:21600}") long poolRefreshSeconds) {
+        // El Builder es compartido (y lleva el conector HTTP común), así que se clona antes de configurarlo
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(apiUrl)
+                .filter(clientMetrics) // Temporizador spotify.client.requests por endpoint y estado
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_RESPONSE_BYTES))
+                .build();
+        this.tokenProvider = tokenProvider;
+        this.callGuard = callGuard;
+        this.seedsMode = "seeds".equalsIgnoreCase(retrievalMode);
+        // Si la consulta falla o no devuelve nada se recuerda poco tiempo: lo bastante para que una
+        // caída de Spotify no provoque una consulta por petición, y poco para reintentarla pronto
+        Duration genreSeedsNegativeTtl = Duration.ofSeconds(genreSeedsNegativeTtlSeconds);
+        this.availableGenreSeeds = fetchAvailableGenreSeeds()
+                .cache(seeds -> seeds.isEmpty() ? genreSeedsNegativeTtl : Duration.ofSeconds(genreSeedsTtlSeconds),
+                        error -> genreSeedsNegativeTtl,
+                        () -> genreSeedsNegativeTtl);
+        this.searchCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries) // Desalojo W-TinyLFU cuando se supera el tamaño
+                .refreshAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .expireAfter(new SearchExpiry(Duration.ofSeconds(ttlSeconds + staleSeconds), Duration.ofSeconds(negativeTtlSeconds)))
+                .recordStats()
+                .buildAsync(new SearchLoader());
+        this.candidatePool = poolEnabled
+                ? new GenreTrackPool((genre, offset, limit, priority) -> fetchSearch("genre:" + genre, "track", limit, offset, MARKET, genre, priority),
+                        poolSize, POOL_PAGE_SIZE, poolMaxPerArtist, poolMaxTracks,
+                        Duration.ofSeconds(poolRefreshSeconds), Duration.ofSeconds(negativeTtlSeconds))
+                : null;
     }
 
     /**
      * Busca canciones en Spotify y devuelve una lista de SongDto.
+     * Los resultados se guardan en caché por (query, type, limit, market, genreHint): durante el
+     * TTL se sirven desde memoria; pasado el TTL se sigue sirviendo la entrada caducada mientras
+     * una única recarga en segundo plano la renueva. Las búsquedas sin resultados (por ejemplo,
+     * por un error de Spotify) se guardan con un TTL más corto.
      * @param query La cadena de búsqueda.
      * @param type El tipo de elemento a buscar (ej. "track").
      * @param limit El número máximo de resultados a devolver.
@@ -77,46 +139,371 @@ public class SpotifyService {
      * @return Mono<List<SongDto>> que emite una lista de SongDto.
      */
     public Mono<List<SongDto>> searchSpotify(String query, String type, int limit, String genreHint) {
-        return getAccessToken().flatMap(accessToken ->
-            webClient.get()
+        return Mono.fromFuture(() -> searchCache.get(new SearchKey(query, type, limit, MARKET, genreHint)), true);
+    }
+
+    /**
+     * Obtiene canciones para varios géneros y las emite por género en cuanto llegan.
+     * En modo "search" hace una búsqueda por género. En modo "seeds" agrupa hasta 5 géneros
+     * por llamada a /recommendations y sólo busca por separado los géneros que no tienen
+     * semilla equivalente en Spotify.
+     * @param genres Los géneros, en orden.
+     * @param limitPerGenre Canciones por género.
+     * @param maxConcurrency Llamadas a Spotify simultáneas como máximo.
+     * @return Flux de pares género → canciones; una lista vacía indica que Spotify no devolvió nada.
+     */
+    public Flux<Map.Entry<String, List<SongDto>>> searchByGenres(List<String> genres, int limitPerGenre, int maxConcurrency) {
+        genres.forEach(genre -> genreRequestCounts.computeIfAbsent(genre, g -> new LongAdder()).increment());
+        if (!seedsMode) {
+            return searchEachGenre(genres, limitPerGenre, maxConcurrency);
+        }
+        return resolveGenreSeeds(genres).flatMapMany(seedsByGenre -> {
+            List<String> unmapped = genres.stream().filter(genre -> !seedsByGenre.containsKey(genre)).collect(Collectors.toList());
+            List<List<String>> groups = groupBySeeds(seedsByGenre);
+            Flux<Map.Entry<String, List<SongDto>>> recommended = Flux.fromIterable(groups)
+                    .flatMap(group -> recommendForGenreGroup(group, seedsByGenre, limitPerGenre), maxConcurrency);
+            return Flux.merge(recommended, searchEachGenre(unmapped, limitPerGenre, maxConcurrency));
+        });
+    }
+
+    /**
+     * Traduce los géneros del catálogo a semillas de Spotify. Los que no tienen semilla
+     * disponible se omiten del resultado.
+     * @param genres Los géneros del catálogo.
+     * @return Mono con el mapa género → semilla, en el orden de entrada.
+     */
+    public Mono<Map<String, String>> resolveGenreSeeds(Collection<String> genres) {
+        return availableGenreSeeds.map(seeds -> {
+            Map<String, String> seedsByGenre = new LinkedHashMap<>();
+            for (String genre : genres) {
+                String seed = toSeed(genre);
+                if (seeds.contains(seed)) {
+                    seedsByGenre.put(genre, seed);
+                }
+            }
+            return seedsByGenre;
+        });
+    }
+
+    /**
+     * Filtra los géneros que la ruta de petición sirve uno a uno (desde su pool o su búsqueda),
+     * que son los únicos que tiene sentido recalentar por género. En modo "search" son todos; en
+     * modo "seeds" sólo los que no tienen semilla, porque el resto se piden agrupados a
+     * /recommendations.
+     * @param genres Los géneros del catálogo, en orden.
+     * @return Mono con los géneros servidos por género, en el orden de entrada.
+     */
+    public Mono<List<String>> genresServedPerGenre(List<String> genres) {
+        if (!seedsMode) {
+            return Mono.just(genres);
+        }
+        return resolveGenreSeeds(genres).map(seedsByGenre -> genres.stream()
+                .filter(genre -> !seedsByGenre.containsKey(genre))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Indica si las canciones de un género deben recalentarse antes de {@code margin}, es decir,
+     * si no están en memoria, están vacías o les tocará recargarse antes de entonces.
+     * @param genre El género.
+     * @param limit Canciones por petición (tamaño de la búsqueda si no hay pools).
+     * @param margin Tiempo hasta la próxima pasada del calentador.
+     * @return true si conviene recalentarlas ya.
+     */
+    public boolean needsWarming(String genre, int limit, Duration margin) {
+        if (candidatePool != null) {
+            return candidatePool.needsWarming(genre, margin);
+        }
+        SearchKey key = new SearchKey("genre:" + genre, "track", limit, MARKET, genre);
+        var policy = searchCache.synchronous().policy();
+        List<SongDto> cached = policy.getIfPresentQuietly(key);
+        if (cached == null || cached.isEmpty()) {
+            return true;
+        }
+        return policy.refreshAfterWrite()
+                .flatMap(refresh -> refresh.ageOf(key).map(age -> age.plus(margin).compareTo(refresh.getRefreshesAfter()) >= 0))
+                .orElse(true);
+    }
+
+    /**
+     * Recalienta las canciones de un género fuera de la ruta de petición: recarga su pool de
+     * candidatas o, si los pools están desactivados, su entrada de la caché de búsquedas.
+     * No cuenta como petición para las prioridades del calentador.
+     * @param genre El género.
+     * @param limit Canciones por petición (tamaño de la búsqueda si no hay pools).
+     * @return Future con el número de canciones obtenidas en esta recarga; 0 si Spotify no devolvió
+     *         nada, aunque se siga sirviendo el resultado anterior.
+     */
+    public CompletableFuture<Integer> warmGenre(String genre, int limit) {
+        if (candidatePool != null) {
+            return candidatePool.warm(genre).thenApply(List::size);
+        }
+        // Se busca directamente con prioridad de segundo plano: un refresh de la caché pasaría por
+        // asyncLoad (interactiva) si la entrada no existe o se ha desalojado
+        SearchKey key = new SearchKey("genre:" + genre, "track", limit, MARKET, genre);
+        List<SongDto> previous = searchCache.synchronous().policy().getIfPresentQuietly(key);
+        return fetchSearch(key.query(), key.type(), key.limit(), 0, key.market(), key.genreHint(), SpotifyRateLimiter.Priority.BACKGROUND)
+                .toFuture()
+                .thenApply(songs -> {
+                    List<SongDto> kept = songs.isEmpty() && previous != null && !previous.isEmpty() ? previous : songs;
+                    searchCache.put(key, CompletableFuture.completedFuture(kept));
+                    return songs.size();
+                });
+    }
+
+    /**
+     * Devuelve cuántas veces se ha pedido cada género desde la ruta de recomendación.
+     * @return Mapa género → número de peticiones.
+     */
+    public Map<String, Long> getGenreRequestCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        genreRequestCounts.forEach((genre, count) -> counts.put(genre, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Devuelve las métricas de los pools de canciones candidatas.
+     * @return Géneros y canciones en memoria, muestras servidas y páginas pedidas a Spotify; null si están desactivados.
+     */
+    public CandidatePoolStats getCandidatePoolStats() {
+        return candidatePool == null ? null : candidatePool.getStats();
+    }
+
+    /**
+     * Devuelve los contadores de la caché de búsquedas.
+     * @return Aciertos, fallos, desalojos y tamaño actual de la caché.
+     */
+    public SpotifyCacheStats getCacheStats() {
+        CacheStats stats = searchCache.synchronous().stats();
+        return new SpotifyCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate(), searchCache.synchronous().estimatedSize());
+    }
+
+    /**
+     * Una consulta por género: una muestra del pool de candidatas si los pools están activos
+     * o, si no, la búsqueda de las primeras canciones del género.
+     */
+    private Flux<Map.Entry<String, List<SongDto>>> searchEachGenre(List<String> genres, int limitPerGenre, int maxConcurrency) {
+        return Flux.fromIterable(genres)
+                .flatMap(genre -> (candidatePool != null
+                                ? candidatePool.sample(genre, limitPerGenre)
+                                : searchSpotify("genre:" + genre, "track", limitPerGenre, genre))
+                                .map(genreSongs -> Map.entry(genre, genreSongs)),
+                        maxConcurrency);
+    }
+
+    /**
+     * Agrupa los géneros con semilla en grupos de hasta 5 semillas distintas. Los géneros que
+     * comparten semilla (por ejemplo, por un alias) van siempre en el mismo grupo.
+     * @param seedsByGenre El mapa género → semilla, en el orden de la petición.
+     * @return Los grupos de géneros.
+     */
+    static List<List<String>> groupBySeeds(Map<String, String> seedsByGenre) {
+        Map<String, List<String>> genresBySeed = new LinkedHashMap<>();
+        seedsByGenre.forEach((genre, seed) -> genresBySeed.computeIfAbsent(seed, s -> new ArrayList<>()).add(genre));
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        int seedsInGroup = 0;
+        for (List<String> genresOfSeed : genresBySeed.values()) {
+            if (seedsInGroup == MAX_SEEDS) {
+                groups.add(group);
+                group = new ArrayList<>();
+                seedsInGroup = 0;
+            }
+            group.addAll(genresOfSeed);
+            seedsInGroup++;
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    /**
+     * Pide a /recommendations canciones para un grupo de géneros con hasta 5 semillas distintas.
+     */
+    private Flux<Map.Entry<String, List<SongDto>>> recommendForGenreGroup(List<String> group, Map<String, String> seedsByGenre,
+                                                                          int limitPerGenre) {
+        List<String> seeds = sortedSeeds(group, seedsByGenre);
+        int limit = Math.min(MAX_RECOMMENDATIONS, limitPerGenre * seeds.size());
+        SearchKey key = new SearchKey(String.join(",", seeds), RECOMMENDATIONS_TYPE, limit, MARKET, null);
+        return Mono.fromFuture(() -> searchCache.get(key), true)
+                .flatMapIterable(tracks -> attributeBySeed(tracks, group, seedsByGenre, limitPerGenre).entrySet());
+    }
+
+    /**
+     * Las semillas distintas de un grupo, en orden alfabético: el mismo orden que la clave de
+     * caché y que el parámetro seed_genres.
+     */
+    static List<String> sortedSeeds(List<String> group, Map<String, String> seedsByGenre) {
+        return group.stream().map(seedsByGenre::get).distinct().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Reparte las canciones de una respuesta de /recommendations entre las semillas del grupo,
+     * por turnos y en el orden alfabético de las semillas, y entrega a cada género las de su
+     * semilla. Spotify no indica qué semilla originó cada canción, así que el reparto es por
+     * posición; al depender sólo de la respuesta y de las semillas (no del orden de los emojis),
+     * la misma respuesta en caché asigna siempre cada canción al mismo género, y los géneros
+     * que comparten semilla reciben las mismas canciones.
+     * @param tracks Las canciones de la respuesta.
+     * @param group Los géneros del grupo, en el orden de la petición.
+     * @param seedsByGenre El mapa género → semilla.
+     * @param limitPerGenre Canciones por género como máximo.
+     * @return Mapa género → canciones con su recommendedGenre, en el orden de {@code group}.
+     */
+    static Map<String, List<SongDto>> attributeBySeed(List<SongDto> tracks, List<String> group,
+                                                      Map<String, String> seedsByGenre, int limitPerGenre) {
+        List<String> seeds = sortedSeeds(group, seedsByGenre);
+        Map<String, List<SongDto>> tracksBySeed = new HashMap<>();
+        seeds.forEach(seed -> tracksBySeed.put(seed, new ArrayList<>()));
+        for (int i = 0; i < tracks.size(); i++) {
+            List<SongDto> seedTracks = tracksBySeed.get(seeds.get(i % seeds.size()));
+            if (seedTracks.size() < limitPerGenre) {
+                seedTracks.add(tracks.get(i));
+            }
+        }
+        Map<String, List<SongDto>> songsByGenre = new LinkedHashMap<>();
+        for (String genre : group) {
+            List<SongDto> genreSongs = new ArrayList<>();
+            for (SongDto track : tracksBySeed.get(seedsByGenre.get(genre))) {
+                genreSongs.add(new SongDto(null, track.getName(), track.getArtist(), track.getSpotifyUrl(), track.getPreviewUrl(), genre));
+            }
+            songsByGenre.put(genre, genreSongs);
+        }
+        return songsByGenre;
+    }
+
+    /**
+     * Normaliza un género del catálogo al vocabulario de semillas de Spotify:
+     * minúsculas, sin tildes, "&" como "-n-" y espacios como guiones ("R&B" → "r-n-b", "Hip Hop" → "hip-hop").
+     */
+    static String toSeed(String genre) {
+        String seed = Normalizer.normalize(genre, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim()
+                .replaceAll("\\s*&\\s*", "-n-")
+                .replaceAll("\\s+", "-");
+        return SEED_ALIASES.getOrDefault(seed, seed);
+    }
+
+    private Mono<Set<String>> fetchAvailableGenreSeeds() {
+        return tokenProvider.getAccessToken().flatMap(accessToken ->
+                callGuard.execute(SpotifyRateLimiter.Priority.INTERACTIVE, () -> webClient.get()
+                        .uri("/recommendations/available-genre-seeds")
+                        .attribute(SpotifyClientMetrics.ENDPOINT_ATTRIBUTE, SpotifyClientMetrics.GENRE_SEEDS)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+                        .map(jsonNode -> {
+                            Set<String> seeds = new HashSet<>();
+                            jsonNode.path("genres").forEach(seed -> seeds.add(seed.asText()));
+                            return Set.copyOf(seeds);
+                        })
+        ).onErrorReturn(Set.of());
+    }
+
+    /**
+     * Llama a /recommendations con las semillas de género indicadas, sin pasar por la caché.
+     */
+    private Mono<List<SongDto>> fetchRecommendations(String seedGenres, int limit, String market, SpotifyRateLimiter.Priority priority) {
+        return tokenProvider.getAccessToken().flatMap(accessToken ->
+            callGuard.execute(priority, () -> webClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/recommendations")
+                            .queryParam("seed_genres", seedGenres)
+                            .queryParam("limit", limit)
+                            .queryParam("market", market)
+                            .build())
+                    .attribute(SpotifyClientMetrics.ENDPOINT_ATTRIBUTE, SpotifyClientMetrics.RECOMMENDATIONS)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                    .retrieve()
+                    .bodyToMono(byte[].class))
+                    .flatMap(body -> Mono.fromCallable(() -> SpotifyResponseParser.parseRecommendationTracks(body, null)))
+                    .onErrorReturn(Collections.emptyList())
+        ).onErrorReturn(Collections.emptyList()); // Sin token no hay canciones
+    }
+
+    /**
+     * Llama a la API de búsqueda de Spotify sin pasar por la caché.
+     * La respuesta se lee en streaming con {@link SpotifyResponseParser}.
+     */
+    private Mono<List<SongDto>> fetchSearch(String query, String type, int limit, int offset, String market, String genreHint,
+                                            SpotifyRateLimiter.Priority priority) {
+        return tokenProvider.getAccessToken().flatMap(accessToken ->
+            callGuard.execute(priority, () -> webClient.get()
                     .uri(uriBuilder -> uriBuilder.path("/search")
                             .queryParam("q", URLEncoder.encode(query, StandardCharsets.UTF_8))
                             .queryParam("type", type)
                             .queryParam("limit", limit)
-                            .queryParam("market", "ES") // <-- Añadido para forzar catálogo de España
+                            .queryParam("offset", offset)
+                            .queryParam("market", market)
                             .build())
+                    .attribute(SpotifyClientMetrics.ENDPOINT_ATTRIBUTE, SpotifyClientMetrics.SEARCH)
                     .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
                     .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .map(jsonNode -> {
-                        List<SongDto> results = new ArrayList<>();
-                        if ("track".equals(type)) {
-                            JsonNode tracksNode = jsonNode.path("tracks").path("items");
-                            for (JsonNode track : tracksNode) {
-                                String songName = track.path("name").asText();
-                                String artistName = track.path("artists").get(0).path("name").asText();
-                                String spotifyUrl = track.path("external_urls").path("spotify").asText();
-
-                                String previewUrl = track.path("preview_url").asText();
-                                if (previewUrl == null || previewUrl.equalsIgnoreCase("null") || previewUrl.isEmpty()) {
-                                    previewUrl = "";
-                                }
-
-                                System.out.println("DEBUG Backend SpotifyService: previewUrl para '" + songName + "' es: '" + previewUrl + "'");
-
-                                // SongDto: (String id, String nombre, String artista, String spotifyUrl, String previewUrl, String genreHint)
-                                results.add(new SongDto(null, songName, artistName, spotifyUrl, previewUrl, genreHint));
-                            }
-                        }
-                        return results;
-                    })
-                    .onErrorResume(e -> {
-                        System.err.println("Error searching Spotify: " + e.getMessage());
-                        return Mono.just(Collections.emptyList());
-                    })
-        ).onErrorResume(e -> {
-            System.err.println("Error getting Spotify access token: " + e.getMessage());
-            return Mono.just(Collections.emptyList());
-        });
+                    .bodyToMono(byte[].class))
+                    .flatMap(body -> "track".equals(type)
+                            ? Mono.fromCallable(() -> SpotifyResponseParser.parseSearchTracks(body, genreHint))
+                            : Mono.just(new ArrayList<SongDto>()))
+                    .onErrorReturn(Collections.emptyList())
+        ).onErrorReturn(Collections.emptyList()); // Sin token no hay canciones
+    }
+
+    /**
+     * Clave de la caché de búsquedas. El genreHint forma parte de la clave porque viaja
+     * dentro de cada SongDto devuelto. Para /recommendations, query son las semillas separadas
+     * por comas y genreHint es null: el género se asigna al repartir las canciones.
+     */
+    private record SearchKey(String query, String type, int limit, String market, String genreHint) {
+    }
+
+    private class SearchLoader implements AsyncCacheLoader<SearchKey, List<SongDto>> {
+        @Override
+        public CompletableFuture<List<SongDto>> asyncLoad(SearchKey key, Executor executor) {
+            return load(key, SpotifyRateLimiter.Priority.INTERACTIVE);
+        }
+
+        @Override
+        public CompletableFuture<List<SongDto>> asyncReload(SearchKey key, List<SongDto> oldValue, Executor executor) {
+            // Si la recarga falla se conserva el resultado anterior en lugar de sustituirlo por una lista vacía
+            return load(key, SpotifyRateLimiter.Priority.BACKGROUND)
+                    .thenApply(newValue -> newValue.isEmpty() && !oldValue.isEmpty() ? oldValue : newValue);
+        }
+
+        private CompletableFuture<List<SongDto>> load(SearchKey key, SpotifyRateLimiter.Priority priority) {
+            if (RECOMMENDATIONS_TYPE.equals(key.type())) {
+                return fetchRecommendations(key.query(), key.limit(), key.market(), priority).toFuture();
+            }
+            return fetchSearch(key.query(), key.type(), key.limit(), 0, key.market(), key.genreHint(), priority).toFuture();
+        }
+    }
+
+    /**
+     * Caducidad por entrada: los resultados vacíos caducan antes que los normales.
+     */
+    private static class SearchExpiry implements Expiry<SearchKey, List<SongDto>> {
+        private final long positiveNanos;
+        private final long negativeNanos;
+
+        SearchExpiry(Duration positiveTtl, Duration negativeTtl) {
+            this.positiveNanos = positiveTtl.toNanos();
+            this.negativeNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(SearchKey key, List<SongDto> value, long currentTime) {
+            return value.isEmpty() ? negativeNanos : positiveNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(SearchKey key, List<SongDto> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(SearchKey key, List<SongDto> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
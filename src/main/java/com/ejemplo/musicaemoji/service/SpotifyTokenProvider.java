@@ -0,0 +1,163 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.config.SpotifyClientMetrics;
+import com.ejemplo.musicaemoji.model.SpotifyTokenStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Gestiona el token de acceso de Spotify (flujo client_credentials).
+ * El token y su caducidad se publican juntos de forma atómica. Si varios hilos necesitan
+ * renovarlo a la vez, todos comparten una única petición en curso, y una tarea periódica lo
+ * renueva antes de que caduque para que las peticiones de usuario no esperen a la autenticación.
+ */
+@Component
+public class SpotifyTokenProvider {
+
+    private static final long EXPIRY_MARGIN_MILLIS = 5000; // Margen de seguridad sobre expires_in
+
+    @Value("${spotify.client.id}")
+    private String clientId;
+
+    @Value("${spotify.client.secret}")
+    private String clientSecret;
+
+    // Antelación con la que la tarea periódica renueva el token
+    @Value("${spotify.token.renew-before-ms:300000}")
+    private long renewBeforeMillis;
+
+    private final WebClient authClient;
+
+    private final AtomicReference<AccessToken> currentToken = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<AccessToken>> inFlightRefresh = new AtomicReference<>();
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong totalRefreshNanos = new AtomicLong();
+    private final AtomicLong lastRefreshNanos = new AtomicLong();
+    private final AtomicLong waitingCallers = new AtomicLong();
+
+    public SpotifyTokenProvider(WebClient.Builder webClientBuilder,
+                                SpotifyClientMetrics clientMetrics,
+                                @Value("${spotify.auth-url:https://accounts.spotify.com/api/token}") String authUrl) {
+        // Se crea una sola vez; el Builder es compartido, así que se clona antes de configurarlo
+        this.authClient = webClientBuilder.clone().baseUrl(authUrl).filter(clientMetrics).build();
+    }
+
+    /**
+     * Devuelve un token válido. Si el token actual sigue vigente no hay ninguna espera;
+     * si no, el llamante se une a la renovación en curso (o la inicia).
+     * @return Mono que emite el token de acceso.
+     */
+    public Mono<String> getAccessToken() {
+        AccessToken token = currentToken.get();
+        if (token != null && token.isValidAt(System.currentTimeMillis())) {
+            return Mono.just(token.value());
+        }
+        waitingCallers.incrementAndGet();
+        // La cancelación de un llamante no cancela la renovación compartida
+        return Mono.fromFuture(this::refreshShared, true).map(AccessToken::value);
+    }
+
+    /**
+     * Renueva el token en segundo plano cuando le queda menos de {@code renewBeforeMillis}.
+     */
+    @Scheduled(fixedDelayString = "${spotify.token.renew-check-ms:30000}")
+    public void renewIfExpiringSoon() {
+        AccessToken token = currentToken.get();
+        if (token != null && token.expiresAtMillis() - System.currentTimeMillis() > renewBeforeMillis) {
+            return;
+        }
+        refreshShared().exceptionally(e -> {
+            System.err.println("SpotifyTokenProvider: Error en la renovación anticipada del token: " + e.getMessage());
+            return null;
+        });
+    }
+
+    public SpotifyTokenStats getStats() {
+        long refreshes = refreshCount.get();
+        AccessToken token = currentToken.get();
+        return new SpotifyTokenStats(refreshes, refreshFailures.get(), waitingCallers.get(),
+                refreshes == 0 ? 0 : totalRefreshNanos.get() / refreshes / 1_000_000,
+                lastRefreshNanos.get() / 1_000_000,
+                token == null ? 0 : token.expiresAtMillis());
+    }
+
+    /**
+     * Devuelve la renovación en curso o inicia una nueva. Sólo puede haber una a la vez.
+     */
+    private CompletableFuture<AccessToken> refreshShared() {
+        while (true) {
+            CompletableFuture<AccessToken> existing = inFlightRefresh.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<AccessToken> created = new CompletableFuture<>();
+            if (inFlightRefresh.compareAndSet(null, created)) {
+                long start = System.nanoTime();
+                requestToken().subscribe(
+                        token -> {
+                            recordRefresh(start);
+                            // Se publica el token antes de liberar la renovación en curso
+                            currentToken.set(token);
+                            inFlightRefresh.compareAndSet(created, null);
+                            created.complete(token);
+                        },
+                        error -> {
+                            recordRefresh(start);
+                            refreshFailures.incrementAndGet();
+                            inFlightRefresh.compareAndSet(created, null);
+                            created.completeExceptionally(error);
+                        });
+                return created;
+            }
+        }
+    }
+
+    private void recordRefresh(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        refreshCount.incrementAndGet();
+        totalRefreshNanos.addAndGet(elapsed);
+        lastRefreshNanos.set(elapsed);
+    }
+
+    private Mono<AccessToken> requestToken() {
+        String authString = clientId + ":" + clientSecret;
+        String encodedAuthString = Base64.getEncoder().encodeToString(authString.getBytes(StandardCharsets.UTF_8));
+
+        return authClient.post()
+                .attribute(SpotifyClientMetrics.ENDPOINT_ATTRIBUTE, SpotifyClientMetrics.TOKEN)
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + encodedAuthString)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("grant_type", "client_credentials"))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(jsonNode -> {
+                    String accessToken = jsonNode.get("access_token").asText();
+                    long expiresIn = jsonNode.get("expires_in").asLong();
+                    return new AccessToken(accessToken, System.currentTimeMillis() + (expiresIn * 1000) - EXPIRY_MARGIN_MILLIS);
+                });
+    }
+
+    /**
+     * Token y caducidad publicados juntos para que nunca se lean desincronizados.
+     */
+    private record AccessToken(String value, long expiresAtMillis) {
+        boolean isValidAt(long nowMillis) {
+            return nowMillis < expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ejemplo.musicaemoji.service;
+
+/**
+ * Se lanza cuando una llamada a Spotify no se intenta porque el circuito está abierto o
+ * porque se ha alcanzado el límite de llamadas simultáneas. El llamante usa el fallback.
+ */
+public class SpotifyUnavailableException extends RuntimeException {
+
+    public SpotifyUnavailableException(String reason) {
+        super("Spotify no disponible: " + reason);
+    }
+}
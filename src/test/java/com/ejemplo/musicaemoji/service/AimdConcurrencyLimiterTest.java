@@ -0,0 +1,98 @@
+package com.ejemplo.musicaemoji.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdConcurrencyLimiterTest {
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void rejectsCallsAboveTheLimit() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 10, 0.5, SLOW);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.onIgnored();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void increasesByAboutOnePerRoundOfFastSuccesses() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 1, 10, 0.5, SLOW);
+
+        // Cuatro éxitos con límite 4 suman 1/4 cada uno
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.onSuccess(FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onSuccess(FAST);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void neverExceedsTheMaximum() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(3, 1, 3, 0.5, SLOW);
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void dropMultipliesTheLimitByBackoff() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 1, 10, 0.5, SLOW);
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void slowSuccessCountsAsCongestion() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 1, 10, 0.5, SLOW);
+
+        limiter.tryAcquire();
+        limiter.onSuccess(SLOW + 1);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void neverDropsBelowTheMinimum() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 2, 10, 0.5, SLOW);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoredCallsDoNotChangeTheLimit() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 1, 10, 0.5, SLOW);
+
+        limiter.tryAcquire();
+        limiter.onIgnored();
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,127 @@
+package com.ejemplo.musicaemoji.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long LONG_OPEN = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 5, 0.5, LONG_OPEN);
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getFailureRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, LONG_OPEN);
+        succeed(breaker);
+        succeed(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getOpenedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCallsWhileOpen() {
+        CircuitBreaker breaker = openBreaker(LONG_OPEN);
+
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getShortCircuited()).isEqualTo(2);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenLetsASingleTrialThrough() {
+        CircuitBreaker breaker = openBreaker(0);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getShortCircuited()).isEqualTo(1);
+    }
+
+    @Test
+    void successfulTrialClosesAndResetsTheWindow() {
+        CircuitBreaker breaker = openBreaker(0);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getFailureRate()).isZero();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopens() {
+        CircuitBreaker breaker = openBreaker(0);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getOpenedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoredTrialReleasesTheSlot() {
+        CircuitBreaker breaker = openBreaker(0);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onIgnored();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void oldResultsLeaveTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, LONG_OPEN);
+        fail(breaker);
+        fail(breaker);
+        succeed(breaker);
+        succeed(breaker);
+        // Los dos fallos salen de la ventana
+        succeed(breaker);
+        succeed(breaker);
+
+        assertThat(breaker.getFailureRate()).isZero();
+        fail(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private static CircuitBreaker openBreaker(long openNanos) {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, openNanos);
+        fail(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+    }
+}
@@ -0,0 +1,101 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.config.DatabaseInitializer;
+import com.ejemplo.musicaemoji.model.EmojiMood;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmojiMatcherTest {
+
+    private static EmojiMatcher<String> matcher;
+
+    @BeforeAll
+    static void buildFromSeedData() {
+        Map<String, String> genresByEmoji = new LinkedHashMap<>();
+        for (EmojiMood mood : DatabaseInitializer.initialData()) {
+            genresByEmoji.putIfAbsent(mood.getEmoji(), mood.getGenreHint());
+        }
+        // Prefijos de secuencias ZWJ y un emoji con tono de piel, que no están en los datos iniciales
+        genresByEmoji.put("🏳️", "Bandera Blanca");
+        genresByEmoji.put("👨", "Hombre");
+        genresByEmoji.put("👍", "Aprobación");
+        matcher = EmojiMatcher.build(genresByEmoji);
+    }
+
+    @Test
+    void zwjSequencesMatchAsOneEmoji() {
+        assertThat(match("🧘‍♀️")).containsExactly("Jazz");
+        assertThat(match("🧘‍♂️")).containsExactly("New Age");
+        assertThat(match("🏴‍☠️")).containsExactly("Pirate Metal");
+    }
+
+    @Test
+    void regionalIndicatorPairsMatchAsOneFlag() {
+        assertThat(match("🇯🇲")).containsExactly("Reggae");
+        // Dos banderas seguidas sin separador
+        assertThat(match("🇯🇲🇬🇧")).containsExactly("Reggae", "Grime");
+    }
+
+    @Test
+    void variationSelectorIsIgnored() {
+        assertThat(match("🌧")).containsExactly("Balada");
+        assertThat(match("🌧️")).containsExactly("Balada");
+        assertThat(match("⚙")).containsExactly("Techno");
+        assertThat(match("⚙️")).containsExactly("Techno");
+    }
+
+    @Test
+    void skinToneIsIgnored() {
+        assertThat(match("👍🏽")).containsExactly("Aprobación");
+        assertThat(match("👍")).containsExactly("Aprobación");
+    }
+
+    @Test
+    void zwjSequenceWithOnlyAMappedPrefixIsUnmatched() {
+        List<String> genres = new ArrayList<>();
+        assertThat(matcher.forEachMatch("🏳️‍🌈", genres::add)).isEqualTo(1);
+        assertThat(matcher.forEachMatch("👨‍👩‍👧", genres::add)).isEqualTo(1);
+        assertThat(genres).isEmpty();
+    }
+
+    @Test
+    void asciiSeparatorsAreNotCountedAsUnmatched() {
+        List<String> genres = new ArrayList<>();
+        int unmatched = matcher.forEachMatch("😄, 🌧️ y ⚙️", genres::add);
+        assertThat(genres).containsExactly("Pop", "Balada", "Techno");
+        assertThat(unmatched).isZero();
+    }
+
+    @Test
+    void countsUnmatchedEmojis() {
+        List<String> genres = new ArrayList<>();
+        int unmatched = matcher.forEachMatch("😄🦄🫠🇯🇲", genres::add);
+        assertThat(genres).containsExactly("Pop", "Reggae");
+        assertThat(unmatched).isEqualTo(2);
+    }
+
+    @Test
+    void emptyInputHasNoMatches() {
+        assertThat(matcher.forEachMatch("", genre -> { })).isZero();
+        assertThat(EmojiMatcher.<String>empty().forEachMatch("😄", genre -> { })).isEqualTo(1);
+    }
+
+    @Test
+    void clustersSplitGraphemesLikeTheMatcher() {
+        assertThat(EmojiMatcher.clusters("🧘‍♀️🇯🇲👍🏽 🌧️"))
+                .containsExactly("🧘‍♀️", "🇯🇲", "👍🏽", " ", "🌧️");
+    }
+
+    private static List<String> match(String input) {
+        List<String> genres = new ArrayList<>();
+        matcher.forEachMatch(input, genres::add);
+        return genres;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ejemplo.musicaemoji.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>();
+
+    @Test
+    void concurrentRequestsJoinTheComputationInFlight() {
+        Sinks.One<String> result = Sinks.one();
+        AtomicInteger computations = new AtomicInteger();
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        coalescer.execute("rock", () -> compute(computations, result)).subscribe(received::add);
+        coalescer.execute("rock", () -> compute(computations, result)).subscribe(received::add);
+        assertThat(coalescer.getStats().getInFlight()).isEqualTo(1);
+
+        result.tryEmitValue("canciones");
+
+        assertThat(computations).hasValue(1);
+        assertThat(received).containsExactly("canciones", "canciones");
+        assertThat(coalescer.getStats().getRequests()).isEqualTo(2);
+        assertThat(coalescer.getStats().getCoalesced()).isEqualTo(1);
+        assertThat(coalescer.getStats().getCoalescingRatio()).isEqualTo(0.5);
+        assertThat(coalescer.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void differentKeysRunSeparately() {
+        AtomicInteger computations = new AtomicInteger();
+
+        coalescer.execute("rock", () -> compute(computations, Mono.never())).subscribe();
+        coalescer.execute("jazz", () -> compute(computations, Mono.never())).subscribe();
+
+        assertThat(computations).hasValue(2);
+        assertThat(coalescer.getStats().getCoalesced()).isZero();
+        assertThat(coalescer.getStats().getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void errorReachesEveryJoinedRequest() {
+        Sinks.One<String> result = Sinks.one();
+        AtomicInteger computations = new AtomicInteger();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        coalescer.execute("rock", () -> compute(computations, result)).subscribe(value -> { }, errors::add);
+        coalescer.execute("rock", () -> compute(computations, result)).subscribe(value -> { }, errors::add);
+        result.tryEmitError(new IllegalStateException("Spotify caído"));
+
+        assertThat(computations).hasValue(1);
+        assertThat(errors).hasSize(2).allSatisfy(error -> assertThat(error).hasMessage("Spotify caído"));
+        assertThat(coalescer.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void failedComputationIsNotReused() {
+        AtomicInteger computations = new AtomicInteger();
+
+        assertThatThrownBy(() -> coalescer.execute("rock", () -> compute(computations, Mono.error(new IllegalStateException("fallo")))).block(TIMEOUT))
+                .hasMessage("fallo");
+        String value = coalescer.execute("rock", () -> compute(computations, Mono.just("canciones"))).block(TIMEOUT);
+
+        assertThat(value).isEqualTo("canciones");
+        assertThat(computations).hasValue(2);
+    }
+
+    @Test
+    void completedComputationIsNotCached() {
+        AtomicInteger computations = new AtomicInteger();
+
+        coalescer.execute("rock", () -> compute(computations, Mono.just("primera"))).block(TIMEOUT);
+        String value = coalescer.execute("rock", () -> compute(computations, Mono.just("segunda"))).block(TIMEOUT);
+
+        assertThat(value).isEqualTo("segunda");
+        assertThat(computations).hasValue(2);
+        assertThat(coalescer.getStats().getCoalesced()).isZero();
+    }
+
+    @Test
+    void computationIsCreatedOnSubscription() {
+        AtomicInteger computations = new AtomicInteger();
+
+        Mono<String> pending = coalescer.execute("rock", () -> compute(computations, Mono.just("canciones")));
+
+        assertThat(computations).hasValue(0);
+        assertThat(pending.block(TIMEOUT)).isEqualTo("canciones");
+        assertThat(computations).hasValue(1);
+    }
+
+    private static Mono<String> compute(AtomicInteger computations, Sinks.One<String> result) {
+        return compute(computations, result.asMono());
+    }
+
+    private static Mono<String> compute(AtomicInteger computations, Mono<String> result) {
+        computations.incrementAndGet();
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ejemplo.musicaemoji.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpotifyCallGuardTest {
+
+    @Test
+    void retryAfterInDeltaSeconds() {
+        assertThat(SpotifyCallGuard.retryAfter(tooManyRequests("7"))).isEqualTo(Duration.ofSeconds(7));
+        assertThat(SpotifyCallGuard.retryAfter(tooManyRequests(" 0 "))).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void negativeDeltaSecondsMeansNoWait() {
+        assertThat(SpotifyCallGuard.retryAfter(tooManyRequests("-5"))).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void retryAfterAsHttpDate() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30));
+
+        Duration retryAfter = SpotifyCallGuard.retryAfter(tooManyRequests(date));
+
+        // La fecha HTTP no tiene fracciones de segundo
+        assertThat(retryAfter).isBetween(Duration.ofSeconds(28), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void httpDateInThePastMeansNoWait() {
+        assertThat(SpotifyCallGuard.retryAfter(tooManyRequests("Wed, 21 Oct 2015 07:28:00 GMT"))).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void missingOrInvalidHeaderIsNull() {
+        assertThat(SpotifyCallGuard.retryAfter(tooManyRequests(null))).isNull();
+        assertThat(SpotifyCallGuard.retryAfter(tooManyRequests(" "))).isNull();
+        assertThat(SpotifyCallGuard.retryAfter(tooManyRequests("pronto"))).isNull();
+    }
+
+    private static WebClientResponseException tooManyRequests(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return WebClientResponseException.create(429, "Too Many Requests", headers, new byte[0], StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.service.SpotifyRateLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpotifyRateLimiterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SpotifyRateLimiter limiter;
+
+    @AfterEach
+    void shutdown() {
+        if (limiter != null) {
+            limiter.shutdown();
+        }
+    }
+
+    @Test
+    void burstIsDispatchedWithoutWaiting() {
+        limiter = new SpotifyRateLimiter(meterRegistry, 1, 3, 10);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(Priority.INTERACTIVE).block(Duration.ofMillis(100));
+        }
+
+        assertThat(limiter.getStats().getInteractiveDispatched()).isEqualTo(3);
+        assertThat(meterRegistry.get("spotify.rate.wait").tag("priority", "INTERACTIVE").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void interactiveCallsLeaveBeforeQueuedBackgroundCalls() {
+        limiter = new SpotifyRateLimiter(meterRegistry, 20, 1, 10);
+        limiter.acquire(Priority.BACKGROUND).block(TIMEOUT); // Gasta el único token
+
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        Mono<Void> background = limiter.acquire(Priority.BACKGROUND).doOnSuccess(ignored -> order.add(Priority.BACKGROUND)).cache();
+        background.subscribe();
+        Mono<Void> interactive = limiter.acquire(Priority.INTERACTIVE).doOnSuccess(ignored -> order.add(Priority.INTERACTIVE)).cache();
+        interactive.subscribe();
+        Mono.when(background, interactive).block(TIMEOUT);
+
+        assertThat(order).containsExactly(Priority.INTERACTIVE, Priority.BACKGROUND);
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() {
+        limiter = new SpotifyRateLimiter(meterRegistry, 1, 1, 1);
+        limiter.acquire(Priority.INTERACTIVE).block(TIMEOUT);
+        Disposable queued = limiter.acquire(Priority.INTERACTIVE).subscribe();
+
+        assertThatThrownBy(() -> limiter.acquire(Priority.BACKGROUND).block(TIMEOUT))
+                .isInstanceOf(SpotifyUnavailableException.class);
+        assertThat(limiter.getStats().getRejected()).isEqualTo(1);
+        assertThat(meterRegistry.get("spotify.rate.rejected").counter().count()).isEqualTo(1);
+        queued.dispose();
+    }
+
+    @Test
+    void pauseRejectsInteractiveCallsAndDelaysBackgroundCalls() {
+        limiter = new SpotifyRateLimiter(meterRegistry, 1000, 10, 10);
+        limiter.onRateLimited(Duration.ofMillis(300));
+
+        assertThatThrownBy(() -> limiter.acquire(Priority.INTERACTIVE).block(TIMEOUT))
+                .isInstanceOf(SpotifyUnavailableException.class);
+        assertThat(limiter.getStats().getPausedForMillis()).isPositive();
+
+        long start = System.nanoTime();
+        limiter.acquire(Priority.BACKGROUND).block(TIMEOUT);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+        assertThat(limiter.getStats().getRateLimitedResponses()).isEqualTo(1);
+        assertThat(meterRegistry.get("spotify.rate.limited").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketStartsEmptyWhenThePauseEnds() throws InterruptedException {
+        limiter = new SpotifyRateLimiter(meterRegistry, 10, 10, 10);
+        limiter.onRateLimited(Duration.ofMillis(300));
+
+        assertThat(limiter.getStats().getAvailableTokens()).isZero();
+        Thread.sleep(350);
+
+        // La pausa no cuenta como tiempo para rellenar: a 10 por segundo, 50 ms dan medio token
+        assertThat(limiter.getStats().getPausedForMillis()).isZero();
+        assertThat(limiter.getStats().getAvailableTokens()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void cancellingAWaiterFreesItsPlace() {
+        limiter = new SpotifyRateLimiter(meterRegistry, 1, 1, 1);
+        limiter.acquire(Priority.INTERACTIVE).block(TIMEOUT);
+        Disposable cancelled = limiter.acquire(Priority.BACKGROUND).subscribe();
+        assertThat(limiter.getStats().getBackgroundQueueDepth()).isEqualTo(1);
+
+        cancelled.dispose();
+
+        assertThat(limiter.getStats().getBackgroundQueueDepth()).isZero();
+        assertThat(meterRegistry.get("spotify.rate.queue").tag("priority", "BACKGROUND").gauge().value()).isZero();
+        // El sitio liberado vuelve a estar disponible para otra llamada
+        Disposable next = limiter.acquire(Priority.INTERACTIVE).subscribe();
+        assertThat(limiter.getStats().getRejected()).isZero();
+        assertThat(limiter.getStats().getInteractiveQueueDepth()).isEqualTo(1);
+        next.dispose();
+    }
+}
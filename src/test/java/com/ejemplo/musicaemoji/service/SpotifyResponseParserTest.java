@@ -0,0 +1,112 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.SongDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpotifyResponseParserTest {
+
+    @Test
+    void readsSearchTracksSkippingUnusedFields() throws IOException {
+        List<SongDto> songs = search("""
+                {"tracks": {"href": "x", "items": [
+                  {"album": {"images": [{"url": "a"}], "name": "Disco"},
+                   "artists": [{"id": "1", "name": "Bob Marley"}, {"name": "The Wailers"}],
+                   "available_markets": ["ES", "MX"],
+                   "external_urls": {"other": "o", "spotify": "https://open.spotify.com/track/1"},
+                   "name": "Three Little Birds",
+                   "preview_url": "https://p.scdn.co/1"}
+                ], "total": 1}}
+                """);
+
+        assertThat(songs).containsExactly(new SongDto(null, "Three Little Birds", "Bob Marley",
+                "https://open.spotify.com/track/1", "https://p.scdn.co/1", "Reggae"));
+    }
+
+    @Test
+    void emptyArtistsFallBackToUnknown() throws IOException {
+        List<SongDto> songs = search("""
+                {"tracks": {"items": [
+                  {"name": "Sin artistas", "artists": []},
+                  {"name": "Artistas nulos", "artists": null},
+                  {"name": "Sin campo"}
+                ]}}
+                """);
+
+        assertThat(songs).extracting(SongDto::getArtist).containsExactly("Desconocido", "Desconocido", "Desconocido");
+    }
+
+    @Test
+    void artistWithoutNameIsSkipped() throws IOException {
+        List<SongDto> songs = search("""
+                {"tracks": {"items": [
+                  {"name": "Canción", "artists": [{"id": "1"}, {"name": "Segundo", "id": "2"}]}
+                ]}}
+                """);
+
+        assertThat(songs).extracting(SongDto::getArtist).containsExactly("Segundo");
+    }
+
+    @Test
+    void missingOptionalFieldsBecomeEmptyStrings() throws IOException {
+        List<SongDto> songs = search("""
+                {"tracks": {"items": [
+                  {"name": "Sin preview", "artists": [{"name": "A"}], "preview_url": null, "external_urls": null}
+                ]}}
+                """);
+
+        assertThat(songs).singleElement().satisfies(song -> {
+            assertThat(song.getPreviewUrl()).isEmpty();
+            assertThat(song.getSpotifyUrl()).isEmpty();
+        });
+    }
+
+    @Test
+    void nullItemsAreSkipped() throws IOException {
+        List<SongDto> songs = search("""
+                {"tracks": {"items": [null, {"name": "Única", "artists": [{"name": "A"}]}, null]}}
+                """);
+
+        assertThat(songs).extracting(SongDto::getName).containsExactly("Única");
+    }
+
+    @Test
+    void responsesWithoutTracksAreEmpty() throws IOException {
+        assertThat(search("{}")).isEmpty();
+        assertThat(search("{\"tracks\": null}")).isEmpty();
+        assertThat(search("{\"tracks\": {\"items\": {}}}")).isEmpty();
+        assertThat(search("{\"error\": {\"status\": 401}}")).isEmpty();
+        assertThat(search("[]")).isEmpty();
+    }
+
+    @Test
+    void readsRecommendationTracksAtTheRoot() throws IOException {
+        byte[] body = """
+                {"seeds": [{"id": "rock"}], "tracks": [
+                  {"name": "Uno", "artists": [{"name": "A"}]},
+                  {"name": "Dos", "artists": [{"name": "B"}]}
+                ]}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        List<SongDto> songs = SpotifyResponseParser.parseRecommendationTracks(body, null);
+
+        assertThat(songs).extracting(SongDto::getName).containsExactly("Uno", "Dos");
+        assertThat(songs).extracting(SongDto::getRecommendedGenre).containsOnlyNulls();
+    }
+
+    @Test
+    void malformedJsonFails() {
+        assertThatThrownBy(() -> search("{\"tracks\": {\"items\": [{\"name\": "))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static List<SongDto> search(String json) throws IOException {
+        return SpotifyResponseParser.parseSearchTracks(json.getBytes(StandardCharsets.UTF_8), "Reggae");
+    }
+}
@@ -0,0 +1,84 @@
+package com.ejemplo.musicaemoji.service;
+
+import com.ejemplo.musicaemoji.model.SongDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpotifyServiceTest {
+
+    private static final Map<String, String> SEEDS = Map.of(
+            "Rock", "rock", "Jazz", "jazz", "Hip Hop", "hip-hop", "Rap", "hip-hop");
+
+    @Test
+    void seedsAreSortedAndDistinct() {
+        assertThat(SpotifyService.sortedSeeds(List.of("Rock", "Rap", "Jazz", "Hip Hop"), SEEDS))
+                .containsExactly("hip-hop", "jazz", "rock");
+    }
+
+    @Test
+    void attributionDoesNotDependOnRequestOrder() {
+        List<SongDto> tracks = tracks(6);
+
+        Map<String, List<SongDto>> forward = SpotifyService.attributeBySeed(tracks, List.of("Rock", "Jazz"), SEEDS, 5);
+        Map<String, List<SongDto>> reversed = SpotifyService.attributeBySeed(tracks, List.of("Jazz", "Rock"), SEEDS, 5);
+
+        assertThat(forward).isEqualTo(reversed);
+        // Las semillas se recorren en orden alfabético: "jazz" recibe las posiciones pares
+        assertThat(names(forward.get("Jazz"))).containsExactly("t0", "t2", "t4");
+        assertThat(names(forward.get("Rock"))).containsExactly("t1", "t3", "t5");
+        assertThat(forward.get("Rock")).extracting(SongDto::getRecommendedGenre).containsOnly("Rock");
+        assertThat(forward.keySet()).containsExactly("Rock", "Jazz");
+    }
+
+    @Test
+    void genresSharingASeedGetTheSameTracks() {
+        Map<String, List<SongDto>> songsByGenre = SpotifyService.attributeBySeed(tracks(4), List.of("Hip Hop", "Jazz", "Rap"), SEEDS, 5);
+
+        assertThat(names(songsByGenre.get("Hip Hop"))).containsExactly("t0", "t2");
+        assertThat(names(songsByGenre.get("Rap"))).containsExactly("t0", "t2");
+        assertThat(songsByGenre.get("Rap")).extracting(SongDto::getRecommendedGenre).containsOnly("Rap");
+        assertThat(names(songsByGenre.get("Jazz"))).containsExactly("t1", "t3");
+    }
+
+    @Test
+    void attributionRespectsTheLimitPerGenre() {
+        Map<String, List<SongDto>> songsByGenre = SpotifyService.attributeBySeed(tracks(10), List.of("Rock", "Jazz"), SEEDS, 2);
+
+        assertThat(songsByGenre.get("Rock")).hasSize(2);
+        assertThat(songsByGenre.get("Jazz")).hasSize(2);
+    }
+
+    @Test
+    void groupsHoldAtMostFiveDistinctSeedsAndKeepSharedSeedsTogether() {
+        Map<String, String> seedsByGenre = new LinkedHashMap<>();
+        seedsByGenre.put("Hip Hop", "hip-hop");
+        for (int i = 1; i <= 4; i++) {
+            seedsByGenre.put("G" + i, "g" + i);
+        }
+        seedsByGenre.put("Rap", "hip-hop");
+        seedsByGenre.put("G5", "g5");
+
+        List<List<String>> groups = SpotifyService.groupBySeeds(seedsByGenre);
+
+        assertThat(groups).containsExactly(List.of("Hip Hop", "Rap", "G1", "G2", "G3", "G4"), List.of("G5"));
+        assertThat(SpotifyService.sortedSeeds(groups.get(0), seedsByGenre)).hasSize(5);
+    }
+
+    private static List<SongDto> tracks(int count) {
+        List<SongDto> tracks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tracks.add(new SongDto(null, "t" + i, "Artista", "https://open.spotify.com/track/" + i, "", null));
+        }
+        return tracks;
+    }
+
+    private static List<String> names(List<SongDto> songs) {
+        return songs.stream().map(SongDto::getName).toList();
+    }
+}